@@ -0,0 +1,77 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shredzone.commons.text.TextFilter;
+
+/**
+ * Base class for benchmarks that apply a single {@link TextFilter} to texts of all
+ * {@link InputProfile} and different sizes. Run with {@code -prof gc} to see the
+ * allocation rates.
+ *
+ * @author Richard "Shred" Körber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class AbstractFilterBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"PLAIN", "HTML", "URL", "SMILY", "MARKDOWN", "TEXTILE"})
+    public InputProfile profile;
+
+    private String text;
+    private TextFilter filter;
+
+    @Setup
+    public void setup() {
+        text = profile.generate(size);
+        filter = createFilter();
+    }
+
+    /**
+     * Creates the {@link TextFilter} to be benchmarked.
+     */
+    protected abstract TextFilter createFilter();
+
+    @Benchmark
+    public CharSequence apply() {
+        return filter.apply(text);
+    }
+
+}
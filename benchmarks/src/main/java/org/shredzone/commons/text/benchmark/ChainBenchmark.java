@@ -0,0 +1,91 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shredzone.commons.text.TextFilterChain;
+import org.shredzone.commons.text.filter.HtmlEscapeFilter;
+import org.shredzone.commons.text.filter.LinkToUrlFilter;
+import org.shredzone.commons.text.filter.NormalizeFilter;
+import org.shredzone.commons.text.filter.ParagraphFilter;
+import org.shredzone.commons.text.filter.SmilyFilter;
+
+/**
+ * Compares a {@link TextFilterChain} with a chain that is composed by
+ * {@link Function#andThen(Function)}. Run with {@code -prof gc} to see the allocation
+ * rates.
+ *
+ * @author Richard "Shred" Körber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChainBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private String text;
+    private TextFilterChain chain;
+    private Function<CharSequence, CharSequence> function;
+
+    @Setup
+    public void setup() {
+        text = InputProfile.PLAIN.generate(size);
+
+        SmilyFilter smilyFilter = Filters.smilyFilter();
+
+        chain = new TextFilterChain(new NormalizeFilter(), new HtmlEscapeFilter(),
+                new LinkToUrlFilter(), smilyFilter, new ParagraphFilter());
+
+        function = new NormalizeFilter()
+                .andThen(new HtmlEscapeFilter())
+                .andThen(new LinkToUrlFilter())
+                .andThen(smilyFilter)
+                .andThen(new ParagraphFilter());
+    }
+
+    @Benchmark
+    public CharSequence chain() {
+        return chain.apply(text);
+    }
+
+    @Benchmark
+    public CharSequence andThen() {
+        return function.apply(text);
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shredzone.commons.text.filter.HtmlEscapeFilter;
+import org.shredzone.commons.text.filter.NormalizeFilter;
+import org.shredzone.commons.text.filter.ParagraphFilter;
+
+/**
+ * Compares the character scanning of {@link HtmlEscapeFilter}, {@link NormalizeFilter}
+ * and {@link ParagraphFilter} with the former {@code charAt} loops. All variants write
+ * to the same reused {@link StringBuilder}, so only the scanning and copying is
+ * measured.
+ * <p>
+ * The filters use the Java 11 scanner of the multi-release jar if the benchmark runs on
+ * Java 11 or higher, and the Java 8 scanner otherwise.
+ *
+ * @author Richard "Shred" Körber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharScanBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"PLAIN", "HTML", "URL"})
+    public InputProfile profile;
+
+    private String crlfText;
+    private String lfText;
+    private StringBuilder out;
+    private HtmlEscapeFilter htmlEscapeFilter;
+    private NormalizeFilter normalizeFilter;
+    private ParagraphFilter paragraphFilter;
+
+    @Setup
+    public void setup() {
+        crlfText = profile.generate(size);
+        lfText = crlfText.replace("\r\n", "\n");
+        out = new StringBuilder(size * 2);
+
+        htmlEscapeFilter = new HtmlEscapeFilter();
+        normalizeFilter = new NormalizeFilter();
+        paragraphFilter = new ParagraphFilter();
+    }
+
+    @Benchmark
+    public CharSequence htmlEscape() throws IOException {
+        out.setLength(0);
+        htmlEscapeFilter.apply(lfText, out);
+        return out;
+    }
+
+    @Benchmark
+    public CharSequence htmlEscapeCharAt() {
+        out.setLength(0);
+        int len = lfText.length();
+        int start = 0;
+        for (int ix = 0; ix < len; ix++) {
+            String entity;
+            char ch = lfText.charAt(ix);
+            if (ch == '<') {
+                entity = "&lt;";
+            } else if (ch == '&') {
+                entity = "&amp;";
+            } else if (ch == '"') {
+                entity = "&quot;";
+            } else {
+                continue;
+            }
+            out.append(lfText, start, ix).append(entity);
+            start = ix + 1;
+        }
+        return out.append(lfText, start, len);
+    }
+
+    @Benchmark
+    public CharSequence normalize() throws IOException {
+        out.setLength(0);
+        normalizeFilter.apply(crlfText, out);
+        return out;
+    }
+
+    @Benchmark
+    public CharSequence normalizeCharAt() {
+        out.setLength(0);
+        int max = crlfText.length();
+        int start = 0;
+        for (int ix = 0; ix < max; ix++) {
+            if (crlfText.charAt(ix) == '\r') {
+                out.append(crlfText, start, ix).append('\n');
+                if ((ix + 1) < max && crlfText.charAt(ix + 1) == '\n') {
+                    ix++;
+                }
+                start = ix + 1;
+            }
+        }
+        return out.append(crlfText, start, max);
+    }
+
+    @Benchmark
+    public CharSequence paragraph() throws IOException {
+        out.setLength(0);
+        paragraphFilter.apply(lfText, out);
+        return out;
+    }
+
+    @Benchmark
+    public CharSequence paragraphCharAt() {
+        out.setLength(0);
+        out.append("<p>");
+        int max = lfText.length();
+        int start = 0;
+        int ix = 0;
+        while (ix < max) {
+            if (lfText.charAt(ix) == '\n') {
+                int lineEnd = ix + 1;
+                while (lineEnd < max && lfText.charAt(lineEnd) == '\n') {
+                    lineEnd++;
+                }
+                if (lineEnd > ix + 1) {
+                    out.append(lfText, start, ix).append("</p><p>");
+                    start = lineEnd;
+                } else {
+                    out.append(lfText, start, ix).append("<br />");
+                    start = lineEnd;
+                }
+                ix = lineEnd;
+            } else {
+                ix++;
+            }
+        }
+        return out.append(lfText, start, max).append("</p>");
+    }
+
+}
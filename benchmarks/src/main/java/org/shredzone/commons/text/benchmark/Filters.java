@@ -0,0 +1,104 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import org.shredzone.commons.text.TextFilterChain;
+import org.shredzone.commons.text.filter.HtmlEscapeFilter;
+import org.shredzone.commons.text.filter.LinkToUrlFilter;
+import org.shredzone.commons.text.filter.MarkdownFilter;
+import org.shredzone.commons.text.filter.NofollowLinksFilter;
+import org.shredzone.commons.text.filter.NormalizeFilter;
+import org.shredzone.commons.text.filter.ParagraphFilter;
+import org.shredzone.commons.text.filter.SimplifyHtmlFilter;
+import org.shredzone.commons.text.filter.SmilyFilter;
+
+/**
+ * Creates filters that are configured like in a typical forum application.
+ *
+ * @author Richard "Shred" Körber
+ */
+public final class Filters {
+
+    private static final String[][] SMILIES = {
+            {":-)", "happy.png"}, {":-(", "sad.png"}, {":-P", "tongue.png"},
+            {":-D", "grin.png"}, {";-)", "wink.png"}, {":-))", "veryhappy.png"},
+            {":-O", "surprised.png"}, {"<3", "heart.png"}, {":'(", "cry.png"},
+            {"8-)", "cool.png"},
+    };
+
+    private Filters() {
+        // utility class without constructor
+    }
+
+    /**
+     * Creates a {@link SmilyFilter} with a set of common smilies.
+     */
+    public static SmilyFilter smilyFilter() {
+        SmilyFilter filter = new SmilyFilter();
+        filter.setBaseUrl("/img/smilies");
+        for (String[] smily : SMILIES) {
+            filter.addSmily(smily[0], smily[1]);
+        }
+        return filter.freeze();
+    }
+
+    /**
+     * Creates a {@link SimplifyHtmlFilter} that accepts common formatting tags.
+     */
+    public static SimplifyHtmlFilter simplifyHtmlFilter() {
+        SimplifyHtmlFilter filter = new SimplifyHtmlFilter();
+        filter.addAcceptedTag("b");
+        filter.addAcceptedTag("i");
+        filter.addAcceptedTag("em");
+        filter.addAcceptedTag("strong");
+        filter.addAcceptedTag("p");
+        filter.addAcceptedTag("br");
+        filter.addAcceptedTag("ul");
+        filter.addAcceptedTag("li");
+        filter.addAcceptedTag("a", "href", "title");
+        filter.addAcceptedTag("img", "src", "alt");
+        return filter;
+    }
+
+    /**
+     * Creates a chain for plain text posts.
+     */
+    public static TextFilterChain textChain() {
+        return new TextFilterChain(new NormalizeFilter(), new HtmlEscapeFilter(),
+                new LinkToUrlFilter(), smilyFilter(), new ParagraphFilter());
+    }
+
+    /**
+     * Creates a chain for HTML posts.
+     */
+    public static TextFilterChain htmlChain() {
+        return new TextFilterChain(new NormalizeFilter(), simplifyHtmlFilter(),
+                new NofollowLinksFilter(), smilyFilter());
+    }
+
+    /**
+     * Creates a chain for Markdown posts.
+     */
+    public static TextFilterChain markdownChain() {
+        return new TextFilterChain(new NormalizeFilter(), new MarkdownFilter(),
+                new NofollowLinksFilter(), smilyFilter());
+    }
+
+}
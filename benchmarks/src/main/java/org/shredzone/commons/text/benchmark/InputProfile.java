@@ -0,0 +1,87 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import java.util.function.LongFunction;
+
+import org.shredzone.commons.text.CorpusGenerator;
+import org.shredzone.commons.text.CorpusGenerator.Format;
+import org.shredzone.commons.text.CorpusGenerator.Kind;
+
+/**
+ * Content profiles of the benchmark input texts. The texts are generated by the
+ * {@link CorpusGenerator}, with a fixed seed.
+ *
+ * @author Richard "Shred" Körber
+ */
+public enum InputProfile {
+
+    /**
+     * Plain text forum posts, with few links and smilies, and CRLF line breaks.
+     */
+    PLAIN(seed -> new CorpusGenerator(seed).linkDensity(0.02).smilyDensity(0.02)
+            .crlfRatio(1.0)),
+
+    /**
+     * HTML articles with a high density of tags and attributes.
+     */
+    HTML(seed -> new CorpusGenerator(seed).format(Format.HTML).kind(Kind.ARTICLE)
+            .linkDensity(0.3).tagNesting(3)),
+
+    /**
+     * Plain text comments with a link in every sentence.
+     */
+    URL(seed -> new CorpusGenerator(seed).kind(Kind.COMMENT).linkDensity(1.0)),
+
+    /**
+     * Plain text comments with a smily after every sentence.
+     */
+    SMILY(seed -> new CorpusGenerator(seed).kind(Kind.COMMENT).smilyDensity(1.0)),
+
+    /**
+     * Markdown articles.
+     */
+    MARKDOWN(seed -> new CorpusGenerator(seed).format(Format.MARKDOWN).kind(Kind.ARTICLE)),
+
+    /**
+     * Textile articles.
+     */
+    TEXTILE(seed -> new CorpusGenerator(seed).format(Format.TEXTILE).kind(Kind.ARTICLE));
+
+    private static final long SEED = 20260101L;
+
+    private final LongFunction<CorpusGenerator> generator;
+
+    InputProfile(LongFunction<CorpusGenerator> generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Generates a text of this profile.
+     *
+     * @param size
+     *            Minimum size of the text, in characters
+     * @return Generated text
+     */
+    public String generate(int size) {
+        return generator.apply(SEED).generate(size);
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shredzone.commons.text.filter.NormalizeFilter;
+import org.shredzone.commons.text.filter.ParagraphFilter;
+
+/**
+ * Measures how {@link NormalizeFilter} and {@link ParagraphFilter} scale with the input
+ * size, on text with CRLF line endings. The average time per operation should grow
+ * linearly with the size.
+ *
+ * @author Richard "Shred" Körber
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineScalingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private String crlfText;
+    private String lfText;
+    private NormalizeFilter normalizeFilter;
+    private ParagraphFilter paragraphFilter;
+
+    @Setup
+    public void setup() {
+        crlfText = InputProfile.PLAIN.generate(size);
+        lfText = crlfText.replace("\r\n", "\n");
+
+        normalizeFilter = new NormalizeFilter();
+        paragraphFilter = new ParagraphFilter();
+    }
+
+    @Benchmark
+    public CharSequence normalize() {
+        return normalizeFilter.apply(new StringBuilder(crlfText));
+    }
+
+    @Benchmark
+    public CharSequence paragraph() {
+        return paragraphFilter.apply(lfText);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.joining;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shredzone.commons.text.filter.SmilyFilter;
+
+/**
+ * Measures the {@link SmilyFilter} with a growing number of smilies. The {@code regex}
+ * benchmark uses the former implementation, a regular expression with all smily codes as
+ * alternatives, as baseline.
+ *
+ * @author Richard "Shred" Körber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmilyBenchmark {
+
+    private static final String[] CLASSIC = {":-)", ":-(", ":-P", ":-D", ";-)", ":-))",
+            ":-O", "<3", ":'(", "8-)"};
+
+    private static final int TEXT_SIZE = 10000;
+
+    @Param({"10", "100", "1000"})
+    public int smilies;
+
+    private String text;
+    private SmilyFilter filter;
+    private Map<String, String> smilyMap;
+    private Pattern pattern;
+
+    @Setup
+    public void setup() {
+        smilyMap = new HashMap<>();
+        for (int ix = 0; ix < smilies; ix++) {
+            String code = ix < CLASSIC.length ? CLASSIC[ix] : ":smily" + ix + ":";
+            smilyMap.put(code, "smily" + ix + ".png");
+        }
+
+        filter = new SmilyFilter();
+        smilyMap.forEach(filter::addSmily);
+
+        pattern = Pattern.compile(smilyMap.keySet().stream()
+                .sorted(comparing(String::length).reversed())
+                .map(Pattern::quote)
+                .collect(joining("|")));
+
+        StringBuilder sb = new StringBuilder(TEXT_SIZE + 100);
+        int ix = 0;
+        while (sb.length() < TEXT_SIZE) {
+            sb.append("Some text with a smily ").append(CLASSIC[ix % CLASSIC.length]);
+            sb.append(" and a :colon: in it, and ");
+            if (smilies > CLASSIC.length) {
+                sb.append(":smily").append(CLASSIC.length + ix % (smilies - CLASSIC.length)).append(':');
+            }
+            sb.append(". ");
+            ix++;
+        }
+        text = sb.toString();
+    }
+
+    @Benchmark
+    public CharSequence trie() {
+        return filter.apply(text);
+    }
+
+    @Benchmark
+    public CharSequence regex() {
+        Matcher m = pattern.matcher(text);
+        StringBuilder result = new StringBuilder();
+        int lastEnd = 0;
+        while (m.find()) {
+            result.append(text, lastEnd, m.start());
+            String smily = m.group();
+            result.append("<img src=\"").append(smilyMap.get(smily)).append('"');
+            result.append(" alt=\"").append(smily).append("\" />");
+            lastEnd = m.end();
+        }
+        result.append(text, lastEnd, text.length());
+        return result;
+    }
+
+}
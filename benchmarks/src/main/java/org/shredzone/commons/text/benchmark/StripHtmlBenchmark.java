@@ -0,0 +1,94 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shredzone.commons.text.filter.StripHtmlFilter;
+
+/**
+ * Measures the {@link StripHtmlFilter} on tag-dense HTML. The {@code regex} benchmark uses
+ * the former implementation, a regular expression for the tags and another one for
+ * detecting inline tags, as baseline.
+ *
+ * @author Richard "Shred" Körber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StripHtmlBenchmark {
+
+    private static final Pattern INLINE_TAGS = Pattern.compile("code|em|strong|samp|" +
+            "kbd|var|cite|dfn|abbr|acronym|q|del|ins|bdo|b|i|u|tt|s|strike|big|small|" +
+            "sup|sub|span|img", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TAG_PATTERN = Pattern.compile("</?([a-zA-Z0-9]+)(?:\\\"[^\"]*\\\"|[^>])*>", Pattern.DOTALL);
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private String text;
+    private StripHtmlFilter filter;
+
+    @Setup
+    public void setup() {
+        text = InputProfile.HTML.generate(size);
+        filter = new StripHtmlFilter();
+    }
+
+    @Benchmark
+    public CharSequence scanner() {
+        return filter.apply(text);
+    }
+
+    @Benchmark
+    public CharSequence regex() {
+        StringBuffer sb = new StringBuffer();
+        Matcher m = TAG_PATTERN.matcher(text);
+        int lastEnd = 0;
+        while (m.find()) {
+            sb.append(text, lastEnd, m.start());
+            boolean isInline = INLINE_TAGS.matcher(m.group(1)).matches();
+            if (!isInline && sb.length() > 0 && !Character.isWhitespace(sb.charAt(sb.length() - 1))) {
+                sb.append(' ');
+            }
+            lastEnd = m.end();
+        }
+        sb.append(text, lastEnd, text.length());
+        return sb;
+    }
+
+}
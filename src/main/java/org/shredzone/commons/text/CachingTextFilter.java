@@ -0,0 +1,328 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A {@link TextFilter} that caches the results of another {@link TextFilter}. It is
+ * meant for expensive filters (like Markdown or Textile) that are applied on the same
+ * texts over and over again.
+ * <p>
+ * The results are looked up by a hash of the input text and a fingerprint of the filter
+ * configuration. The input text is kept along with the result, so hash collisions never
+ * return a wrong result.
+ * <p>
+ * The cache size is limited by the total number of characters of all cached input and
+ * output texts. If the limit is exceeded, the least recently used results are evicted.
+ * The cache is split into 16 segments with separate locks, so concurrent threads rarely
+ * block each other. Each segment holds up to a 16th of the limit. Results whose input
+ * and output texts are larger than that are never cached, so they cannot evict all the
+ * other results of their segment.
+ * <p>
+ * This filter is thread safe if the cached filter is thread safe. It returns immutable
+ * {@link String} results, and never modifies the input text.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public class CachingTextFilter implements TextFilter {
+
+    private static final int SEGMENTS = 16;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final TextFilter filter;
+    private final Supplier<?> fingerprint;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new {@link CachingTextFilter}.
+     * <p>
+     * The configuration of the cached filter is assumed to be constant. If it is
+     * changed, {@link #clear()} must be invoked.
+     *
+     * @param filter
+     *            {@link TextFilter} whose results are cached
+     * @param maxChars
+     *            Maximum total number of characters of all cached input and output
+     *            texts. Results with more than {@code maxChars / 16} characters are not
+     *            cached.
+     */
+    public CachingTextFilter(TextFilter filter, long maxChars) {
+        this(filter, maxChars, () -> Boolean.TRUE);
+    }
+
+    /**
+     * Creates a new {@link CachingTextFilter}.
+     *
+     * @param filter
+     *            {@link TextFilter} whose results are cached
+     * @param maxChars
+     *            Maximum total number of characters of all cached input and output
+     *            texts. Results with more than {@code maxChars / 16} characters are not
+     *            cached.
+     * @param fingerprint
+     *            {@link Supplier} of a fingerprint of the current configuration of the
+     *            cached filter. It is invoked on every lookup, so it should be fast.
+     *            Results are only reused if the fingerprint is equal to the one that was
+     *            used when the result was cached.
+     */
+    public CachingTextFilter(TextFilter filter, long maxChars, Supplier<?> fingerprint) {
+        if (maxChars < 0) {
+            throw new IllegalArgumentException("maxChars must not be negative: " + maxChars);
+        }
+        this.filter = Objects.requireNonNull(filter, "filter");
+        this.fingerprint = Objects.requireNonNull(fingerprint, "fingerprint");
+        this.segments = new Segment[SEGMENTS];
+        for (int ix = 0; ix < SEGMENTS; ix++) {
+            segments[ix] = new Segment(maxChars / SEGMENTS);
+        }
+    }
+
+    @Override
+    public CharSequence apply(CharSequence text) {
+        return lookup(text);
+    }
+
+    @Override
+    public void apply(CharSequence text, Appendable out) throws IOException {
+        out.append(lookup(text));
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return filter.mayModify(text);
+    }
+
+    @Override
+    public int estimateOutputLength(int inputLength) {
+        return filter.estimateOutputLength(inputLength);
+    }
+
+    /**
+     * Returns the number of results that were found in the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of results that were not found in the cache, and had to be
+     * computed.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of results that were evicted from the cache.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the current number of cached results.
+     */
+    public int size() {
+        int result = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                result += segment.map.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current total number of characters of all cached input and output
+     * texts.
+     */
+    public long getWeight() {
+        long result = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                result += segment.weight;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all results from the cache. The statistics are not reset.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Looks up the result in the cache, or computes and caches it.
+     *
+     * @param text
+     *            Input text
+     * @return Filtered text
+     */
+    private String lookup(CharSequence text) {
+        Object fp = Objects.requireNonNull(fingerprint.get(), "fingerprint");
+        long hash = hash(text, fp);
+        Long key = hash;
+        Segment segment = segments[(int) (hash >>> 60) & (SEGMENTS - 1)];
+
+        synchronized (segment) {
+            Entry entry = segment.map.get(key);
+            if (entry != null && entry.matches(text, fp)) {
+                hits.increment();
+                return entry.output;
+            }
+        }
+
+        misses.increment();
+
+        // The input is kept immutable, as it is stored in the cache
+        String input = text.toString();
+        String output = filter.apply(input).toString();
+
+        long weight = (long) input.length() + output.length();
+        if (weight <= segment.maxWeight) {
+            int evicted;
+            synchronized (segment) {
+                evicted = segment.store(key, new Entry(input, output, fp));
+            }
+            evictions.add(evicted);
+        }
+
+        return output;
+    }
+
+    /**
+     * Computes a 64 bit FNV-1a hash of the text and the fingerprint.
+     *
+     * @param text
+     *            Text to hash
+     * @param fp
+     *            Fingerprint
+     * @return Hash
+     */
+    private static long hash(CharSequence text, Object fp) {
+        long h = FNV_OFFSET ^ fp.hashCode();
+        int len = text.length();
+        for (int ix = 0; ix < len; ix++) {
+            h = (h ^ text.charAt(ix)) * FNV_PRIME;
+        }
+
+        // Mix all bits into the upper bits, which select the segment
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * A cached result.
+     */
+    private static class Entry {
+        final String input;
+        final String output;
+        final Object fingerprint;
+
+        Entry(String input, String output, Object fingerprint) {
+            this.input = input;
+            this.output = output;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Checks if this entry is the result of the given text and fingerprint.
+         */
+        boolean matches(CharSequence text, Object fp) {
+            return fingerprint.equals(fp) && input.contentEquals(text);
+        }
+
+        /**
+         * Returns the weight of this entry.
+         */
+        long weight() {
+            return (long) input.length() + output.length();
+        }
+    }
+
+    /**
+     * A segment of the cache. It is a LRU map that is limited by the total weight of its
+     * entries. Access must be synchronized on the segment.
+     */
+    private static class Segment {
+        final Map<Long, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+        final long maxWeight;
+        long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        /**
+         * Stores an entry, and evicts the least recently used entries until the weight
+         * limit is met.
+         *
+         * @return Number of evicted entries
+         */
+        int store(Long key, Entry entry) {
+            @Nullable Entry old = map.put(key, entry);
+            if (old != null) {
+                weight -= old.weight();
+            }
+            weight += entry.weight();
+
+            int evicted = 0;
+            Iterator<Entry> it = map.values().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                Entry eldest = it.next();
+                it.remove();
+                weight -= eldest.weight();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        /**
+         * Removes all entries.
+         */
+        void clear() {
+            map.clear();
+            weight = 0;
+        }
+    }
+
+}
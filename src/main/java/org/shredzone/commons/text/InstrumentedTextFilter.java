@@ -0,0 +1,203 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A {@link TextFilter} that measures another {@link TextFilter}, and reports the input
+ * and output lengths and the processing time to a {@link TextFilterListener}.
+ * <p>
+ * To find out which stage of a {@link TextFilterChain} dominates the latency, wrap
+ * each filter of the chain, using a different name and the same listener.
+ * <p>
+ * The instrumentation can be disabled at runtime. A disabled filter just invokes the
+ * wrapped filter, without taking any measurements.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public class InstrumentedTextFilter implements TextFilter {
+
+    private final TextFilter filter;
+    private final String name;
+    private final TextFilterListener listener;
+    private volatile boolean enabled = true;
+
+    /**
+     * Creates a new {@link InstrumentedTextFilter}.
+     *
+     * @param filter
+     *            {@link TextFilter} to be measured
+     * @param name
+     *            Name of the filter, which is passed to the listener
+     * @param listener
+     *            {@link TextFilterListener} that receives the measurements
+     */
+    public InstrumentedTextFilter(TextFilter filter, String name, TextFilterListener listener) {
+        this.filter = Objects.requireNonNull(filter, "filter");
+        this.name = Objects.requireNonNull(name, "name");
+        this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Enables or disables the instrumentation. It is enabled by default.
+     *
+     * @param enabled
+     *            {@code true} to take measurements, {@code false} to just invoke the
+     *            wrapped filter
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns {@code true} if the instrumentation is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the name of the filter.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the wrapped filter.
+     */
+    public TextFilter getFilter() {
+        return filter;
+    }
+
+    @Override
+    public CharSequence apply(CharSequence text) {
+        if (!enabled) {
+            return filter.apply(text);
+        }
+
+        int inputLength = text.length();
+        long start = System.nanoTime();
+        CharSequence result;
+        try {
+            result = filter.apply(text);
+        } catch (RuntimeException | Error ex) {
+            listener.onFailure(name, inputLength, System.nanoTime() - start, ex);
+            throw ex;
+        }
+        long nanos = System.nanoTime() - start;
+        listener.onApply(name, inputLength, result.length(), nanos);
+        return result;
+    }
+
+    @Override
+    public void apply(CharSequence text, Appendable out) throws IOException {
+        if (!enabled) {
+            filter.apply(text, out);
+            return;
+        }
+
+        int inputLength = text.length();
+        Appendable target = out;
+        int before = 0;
+        if (out instanceof StringBuilder) {
+            before = ((StringBuilder) out).length();
+        } else {
+            target = new CountingAppendable(out);
+        }
+
+        long start = System.nanoTime();
+        try {
+            filter.apply(text, target);
+        } catch (IOException | RuntimeException | Error ex) {
+            listener.onFailure(name, inputLength, System.nanoTime() - start, ex);
+            throw ex;
+        }
+        long nanos = System.nanoTime() - start;
+
+        int outputLength;
+        if (target instanceof CountingAppendable) {
+            outputLength = ((CountingAppendable) target).count;
+        } else {
+            outputLength = ((StringBuilder) target).length() - before;
+        }
+        listener.onApply(name, inputLength, outputLength, nanos);
+    }
+
+    @Override
+    public boolean isInPlace() {
+        return filter.isInPlace();
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return filter.mayModify(text);
+    }
+
+    @Override
+    public int estimateOutputLength(int inputLength) {
+        return filter.estimateOutputLength(inputLength);
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedTextFilter[" + name + "]";
+    }
+
+    /**
+     * An {@link Appendable} that counts the appended characters.
+     */
+    private static class CountingAppendable implements Appendable {
+        private final Appendable out;
+        private int count;
+
+        CountingAppendable(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public Appendable append(@Nullable CharSequence csq) throws IOException {
+            CharSequence s = csq != null ? csq : "null";
+            out.append(s);
+            count += s.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(@Nullable CharSequence csq, int start, int end) throws IOException {
+            out.append(csq, start, end);
+            count += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            out.append(c);
+            count++;
+            return this;
+        }
+    }
+
+}
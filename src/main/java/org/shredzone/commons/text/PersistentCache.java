@@ -0,0 +1,589 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A persistent map of 128 bit keys to strings, stored in a directory.
+ * <p>
+ * The strings are stored in an append-only data file. A memory-mapped index file maps
+ * the keys to the positions of the strings in the data file. The index is an open
+ * addressing hash table with linear probing. It is only derived from the data file, and
+ * is rebuilt from it if it is missing or damaged.
+ * <p>
+ * Each record also carries a tag, which is used to select the records to be kept on
+ * compaction.
+ * <p>
+ * Any number of threads can read concurrently. Writes are exclusive. The directory is
+ * locked while it is open, so only one instance can use it at a time.
+ *
+ * @author Richard "Shred" Körber
+ */
+final class PersistentCache implements Closeable {
+
+    private static final String DATA_FILE = "data";
+    private static final String INDEX_FILE = "index";
+    private static final String COMPACT_DIR = "compact";
+
+    private static final int DATA_MAGIC = 0x54464344;  // "TFCD"
+    private static final int INDEX_MAGIC = 0x54464349; // "TFCI"
+    private static final int VERSION = 1;
+
+    // Data file: magic, version, generation
+    private static final int DATA_HEADER_SIZE = 16;
+
+    // Record: key high, key low, tag, length, followed by the UTF-8 encoded value
+    private static final int RECORD_HEADER_SIZE = 24;
+
+    // Index file: magic, version, capacity, count, generation, data length
+    private static final int INDEX_HEADER_SIZE = 32;
+    private static final int INDEX_CAPACITY = 8;
+    private static final int INDEX_COUNT = 12;
+    private static final int INDEX_GENERATION = 16;
+    private static final int INDEX_DATA_LENGTH = 24;
+
+    // Slot: key high, key low, record offset (0 = empty slot), record length
+    private static final int SLOT_SIZE = 32;
+    private static final int SLOT_LOW = 8;
+    private static final int SLOT_OFFSET = 16;
+    private static final int SLOT_LENGTH = 24;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Path directory;
+    private final FileChannel data;
+    private final FileChannel indexChannel;
+    private final FileLock fileLock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long generation;
+
+    private MappedByteBuffer index;
+    private int capacity;
+    private int count;
+    private long dataLength;
+    private boolean closed;
+
+    /**
+     * Opens a cache. If there is no cache in the directory yet, a new cache is created.
+     *
+     * @param directory
+     *            Cache directory. It is created if it does not exist.
+     * @throws IOException
+     *             if the cache could not be opened, or is in use
+     */
+    PersistentCache(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+
+        data = FileChannel.open(directory.resolve(DATA_FILE), CREATE, READ, WRITE);
+        FileChannel idx = null;
+        FileLock fl = null;
+        try {
+            fl = lock(data, directory);
+            generation = openData();
+            idx = FileChannel.open(directory.resolve(INDEX_FILE), CREATE, READ, WRITE);
+        } catch (IOException | RuntimeException ex) {
+            if (fl != null) {
+                fl.release();
+            }
+            data.close();
+            throw ex;
+        }
+        indexChannel = idx;
+        fileLock = fl;
+
+        try {
+            if (!loadIndex()) {
+                rebuildIndex();
+            }
+        } catch (IOException | RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Compacts a cache. Records that are not referenced by the index, or are not
+     * accepted by the predicate, are removed. The cache must not be in use.
+     *
+     * @param directory
+     *            Cache directory
+     * @param keep
+     *            {@link IntPredicate} that accepts the tags of the records to be kept
+     * @throws IOException
+     *             if the cache could not be compacted, or is in use
+     */
+    static void compact(Path directory, IntPredicate keep) throws IOException {
+        Path target = directory.resolve(COMPACT_DIR);
+        Files.deleteIfExists(target.resolve(DATA_FILE));
+        Files.deleteIfExists(target.resolve(INDEX_FILE));
+
+        try (PersistentCache source = new PersistentCache(directory)) {
+            try (PersistentCache compacted = new PersistentCache(target)) {
+                source.copyTo(compacted, keep);
+                compacted.flush();
+            }
+        }
+
+        // The source must be closed and unlocked before its files are replaced, as
+        // open files cannot be replaced on some platforms (e.g. Windows).
+        // The data file is replaced first. If the index is not replaced afterwards,
+        // its generation won't match, and it is rebuilt from the new data file.
+        move(target.resolve(DATA_FILE), directory.resolve(DATA_FILE));
+        move(target.resolve(INDEX_FILE), directory.resolve(INDEX_FILE));
+
+        Files.deleteIfExists(target);
+    }
+
+    /**
+     * Gets a value.
+     *
+     * @param high
+     *            Upper 64 bits of the key
+     * @param low
+     *            Lower 64 bits of the key
+     * @return Value, or {@code null} if there is no value for that key
+     */
+    @Nullable
+    String get(long high, long low) throws IOException {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int slot = findSlot(high, low);
+            if (slot < 0) {
+                return null;
+            }
+
+            int pos = slotPosition(slot);
+            ByteBuffer record = readRecord(index.getLong(pos + SLOT_OFFSET),
+                    index.getInt(pos + SLOT_LENGTH));
+            if (record.getLong(0) != high || record.getLong(8) != low) {
+                // Index does not match the data file, treat as missing
+                return null;
+            }
+            return new String(record.array(), RECORD_HEADER_SIZE,
+                    record.capacity() - RECORD_HEADER_SIZE, UTF_8);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts a value. If there is already a value for that key, it is kept.
+     *
+     * @param high
+     *            Upper 64 bits of the key
+     * @param low
+     *            Lower 64 bits of the key
+     * @param tag
+     *            Tag of the record
+     * @param value
+     *            Value to store
+     */
+    void put(long high, long low, int tag, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bytes.length);
+        record.putLong(high).putLong(low).putInt(tag).putInt(bytes.length).put(bytes);
+        record.flip();
+
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            if (findSlot(high, low) < 0) {
+                append(high, low, record);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of values in the cache.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            data.force(false);
+            index.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (index != null) {
+                    data.force(false);
+                    index.force();
+                }
+            } finally {
+                try {
+                    fileLock.release();
+                } finally {
+                    indexChannel.close();
+                    data.close();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the data file, or initializes a new one.
+     *
+     * @return Generation of the data file
+     */
+    private long openData() throws IOException {
+        if (data.size() < DATA_HEADER_SIZE) {
+            long gen = new SecureRandom().nextLong();
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+            header.putInt(DATA_MAGIC).putInt(VERSION).putLong(gen).flip();
+            data.truncate(0);
+            writeFully(data, header, 0);
+            return gen;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+        readFully(data, header, 0);
+        if (header.getInt(0) != DATA_MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a cache data file: " + directory.resolve(DATA_FILE));
+        }
+        return header.getLong(8);
+    }
+
+    /**
+     * Loads the index file.
+     *
+     * @return {@code true} if the index file is valid and was loaded, {@code false} if
+     *         it must be rebuilt
+     */
+    private boolean loadIndex() throws IOException {
+        long size = indexChannel.size();
+        if (size < INDEX_HEADER_SIZE) {
+            return false;
+        }
+
+        // The header is validated before mapping, as a mapped file cannot be truncated
+        // on some platforms
+        ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+        readFully(indexChannel, header, 0);
+        int cap = header.getInt(INDEX_CAPACITY);
+        long length = header.getLong(INDEX_DATA_LENGTH);
+        if (header.getInt(0) != INDEX_MAGIC
+                || header.getInt(4) != VERSION
+                || header.getLong(INDEX_GENERATION) != generation
+                || cap < MIN_CAPACITY
+                || Integer.bitCount(cap) != 1
+                || size != INDEX_HEADER_SIZE + (long) cap * SLOT_SIZE
+                || length < DATA_HEADER_SIZE
+                || length > data.size()) {
+            return false;
+        }
+
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        capacity = cap;
+        count = header.getInt(INDEX_COUNT);
+        dataLength = length;
+
+        // Drop records that were appended, but not indexed
+        if (data.size() > dataLength) {
+            data.truncate(dataLength);
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the index file from the data file. An incomplete record at the end of
+     * the data file is removed.
+     */
+    private void rebuildIndex() throws IOException {
+        createIndex(MIN_CAPACITY);
+        count = 0;
+
+        long size = data.size();
+        long pos = DATA_HEADER_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (pos + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(data, header, pos);
+            int length = RECORD_HEADER_SIZE + header.getInt(20);
+            if (length < RECORD_HEADER_SIZE || pos + length > size) {
+                break;
+            }
+
+            long high = header.getLong(0);
+            long low = header.getLong(8);
+            if (findSlot(high, low) < 0) {
+                insertSlot(high, low, pos, length);
+                count++;
+                if (count * 2L > capacity) {
+                    grow();
+                }
+            }
+            pos += length;
+        }
+
+        data.truncate(pos);
+        dataLength = pos;
+        writeHeader();
+    }
+
+    /**
+     * Creates a new, empty index of the given capacity.
+     */
+    private void createIndex(int newCapacity) throws IOException {
+        long size = INDEX_HEADER_SIZE + (long) newCapacity * SLOT_SIZE;
+        if (index == null && indexChannel.size() > size) {
+            indexChannel.truncate(size);
+        }
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        for (int ix = 0; ix < newCapacity; ix++) {
+            index.putLong(slotPosition(ix) + SLOT_OFFSET, 0L);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Doubles the capacity of the index. The index is marked invalid while it is
+     * rebuilt, so it is rebuilt from the data file if the process is interrupted.
+     */
+    private void grow() throws IOException {
+        int oldCapacity = capacity;
+        long[] slots = new long[count * 4];
+        int n = 0;
+        for (int ix = 0; ix < oldCapacity; ix++) {
+            int pos = slotPosition(ix);
+            long offset = index.getLong(pos + SLOT_OFFSET);
+            if (offset != 0L) {
+                slots[n++] = index.getLong(pos);
+                slots[n++] = index.getLong(pos + SLOT_LOW);
+                slots[n++] = offset;
+                slots[n++] = index.getInt(pos + SLOT_LENGTH);
+            }
+        }
+
+        index.putInt(0, 0);
+        createIndex(oldCapacity * 2);
+        for (int ix = 0; ix < n; ix += 4) {
+            insertSlot(slots[ix], slots[ix + 1], slots[ix + 2], (int) slots[ix + 3]);
+        }
+        writeHeader();
+    }
+
+    /**
+     * Appends a record to the data file, and adds it to the index.
+     */
+    private void append(long high, long low, ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        writeFully(data, record, dataLength);
+        insertSlot(high, low, dataLength, length);
+        dataLength += length;
+        count++;
+        if (count * 2L > capacity) {
+            grow();
+        } else {
+            writeHeader();
+        }
+    }
+
+    /**
+     * Copies all records that are referenced by the index and accepted by the predicate
+     * to another cache.
+     */
+    private void copyTo(PersistentCache target, IntPredicate keep) throws IOException {
+        for (int ix = 0; ix < capacity; ix++) {
+            int pos = slotPosition(ix);
+            long offset = index.getLong(pos + SLOT_OFFSET);
+            if (offset == 0L) {
+                continue;
+            }
+
+            ByteBuffer record = readRecord(offset, index.getInt(pos + SLOT_LENGTH));
+            long high = record.getLong(0);
+            long low = record.getLong(8);
+            if (high == index.getLong(pos) && low == index.getLong(pos + SLOT_LOW)
+                    && keep.test(record.getInt(16))) {
+                target.append(high, low, record);
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @return Slot number, or -1 if the key is not in the index
+     */
+    private int findSlot(long high, long low) {
+        int mask = capacity - 1;
+        int slot = (int) low & mask;
+        while (true) {
+            int pos = slotPosition(slot);
+            if (index.getLong(pos + SLOT_OFFSET) == 0L) {
+                return -1;
+            }
+            if (index.getLong(pos) == high && index.getLong(pos + SLOT_LOW) == low) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Inserts a key into the first free slot. The key must not be in the index yet.
+     */
+    private void insertSlot(long high, long low, long offset, int length) {
+        int mask = capacity - 1;
+        int slot = (int) low & mask;
+        while (index.getLong(slotPosition(slot) + SLOT_OFFSET) != 0L) {
+            slot = (slot + 1) & mask;
+        }
+
+        int pos = slotPosition(slot);
+        index.putLong(pos, high);
+        index.putLong(pos + SLOT_LOW, low);
+        index.putInt(pos + SLOT_LENGTH, length);
+        index.putLong(pos + SLOT_OFFSET, offset);
+    }
+
+    /**
+     * Writes the index header.
+     */
+    private void writeHeader() {
+        index.putInt(4, VERSION);
+        index.putInt(INDEX_CAPACITY, capacity);
+        index.putInt(INDEX_COUNT, count);
+        index.putLong(INDEX_GENERATION, generation);
+        index.putLong(INDEX_DATA_LENGTH, dataLength);
+        index.putInt(0, INDEX_MAGIC);
+    }
+
+    /**
+     * Reads a record from the data file.
+     */
+    private ByteBuffer readRecord(long offset, int length) throws IOException {
+        if (length < RECORD_HEADER_SIZE || offset + length > dataLength) {
+            throw new IOException("Damaged cache index: " + directory.resolve(INDEX_FILE));
+        }
+        ByteBuffer record = ByteBuffer.allocate(length);
+        readFully(data, record, offset);
+        record.flip();
+        return record;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Cache is closed: " + directory);
+        }
+    }
+
+    private static int slotPosition(int slot) {
+        return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Locks the data file, so it cannot be used by other instances or processes.
+     */
+    private static FileLock lock(FileChannel channel, Path directory) throws IOException {
+        FileLock result;
+        try {
+            result = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            result = null;
+        }
+        if (result == null) {
+            throw new IOException("Cache is in use: " + directory);
+        }
+        return result;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+                throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, pos);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            pos += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+                throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, REPLACE_EXISTING);
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link TextFilter} that caches the results of another {@link TextFilter} in files,
+ * so they survive a restart.
+ * <p>
+ * The results are looked up by a SHA-256 hash of the filter fingerprint and the input
+ * text. They are stored in an append-only data file, and found by a memory-mapped index
+ * file. The cache directory can only be used by one instance at a time. It is locked
+ * while it is open.
+ * <p>
+ * Any number of threads can read from the cache concurrently. New results are written
+ * exclusively. The cache grows without limit. Use {@link #compact(Path, String)} to
+ * remove the results of former filter configurations while the cache is not in use.
+ * <p>
+ * For best performance, combine it with a {@link CachingTextFilter}, so the most
+ * recently used results are kept in memory.
+ * <p>
+ * This filter is thread safe if the cached filter is thread safe. It returns immutable
+ * {@link String} results, and never modifies the input text.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public class PersistentCachingTextFilter implements TextFilter, Closeable {
+
+    private final TextFilter filter;
+    private final PersistentCache cache;
+    private final byte[] fingerprint;
+    private final int tag;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new {@link PersistentCachingTextFilter}.
+     *
+     * @param filter
+     *            {@link TextFilter} whose results are cached
+     * @param directory
+     *            Cache directory. It is created if it does not exist.
+     * @param fingerprint
+     *            Fingerprint of the configuration of the cached filter. It must be
+     *            changed whenever the filter configuration changes in a way that gives
+     *            different results. Results of other fingerprints are not used.
+     * @throws IOException
+     *             if the cache could not be opened, or is in use
+     */
+    public PersistentCachingTextFilter(TextFilter filter, Path directory, String fingerprint)
+                throws IOException {
+        this.filter = Objects.requireNonNull(filter, "filter");
+        this.fingerprint = fingerprint.getBytes(UTF_8);
+        this.tag = tag(fingerprint);
+        this.cache = new PersistentCache(directory);
+    }
+
+    /**
+     * Compacts a cache directory. All results of other fingerprints are removed, and
+     * the data file is rewritten without any unused space. The cache must not be in use
+     * while it is compacted.
+     *
+     * @param directory
+     *            Cache directory
+     * @param fingerprint
+     *            Fingerprint of the results to be kept
+     * @throws IOException
+     *             if the cache could not be compacted, or is in use
+     */
+    public static void compact(Path directory, String fingerprint) throws IOException {
+        int keep = tag(fingerprint);
+        PersistentCache.compact(directory, t -> t == keep);
+    }
+
+    @Override
+    public CharSequence apply(CharSequence text) {
+        return lookup(text);
+    }
+
+    @Override
+    public void apply(CharSequence text, Appendable out) throws IOException {
+        out.append(lookup(text));
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return filter.mayModify(text);
+    }
+
+    @Override
+    public int estimateOutputLength(int inputLength) {
+        return filter.estimateOutputLength(inputLength);
+    }
+
+    /**
+     * Returns the number of results that were found in the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of results that were not found in the cache, and had to be
+     * computed.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached results, of all fingerprints.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Writes all cached results to the storage device.
+     */
+    public void flush() throws IOException {
+        cache.flush();
+    }
+
+    /**
+     * Closes the cache. The filter cannot be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        cache.close();
+    }
+
+    /**
+     * Looks up the result in the cache, or computes and caches it.
+     *
+     * @param text
+     *            Input text
+     * @return Filtered text
+     */
+    private String lookup(CharSequence text) {
+        byte[] digest = digest(text);
+        ByteBuffer key = ByteBuffer.wrap(digest);
+        long high = key.getLong(0);
+        long low = key.getLong(8);
+
+        try {
+            String cached = cache.get(high, low);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+
+            misses.increment();
+            String output = filter.apply(text.toString()).toString();
+            cache.put(high, low, tag, output);
+            return output;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of the fingerprint and the text.
+     */
+    private byte[] digest(CharSequence text) {
+        MessageDigest md = sha256();
+        md.update(fingerprint);
+        md.update((byte) 0);
+
+        // Text is hashed as UTF-16, so it does not need to be encoded first
+        byte[] buffer = new byte[Math.min(text.length(), 4096) * 2];
+        int len = text.length();
+        int pos = 0;
+        for (int ix = 0; ix < len; ix++) {
+            char ch = text.charAt(ix);
+            buffer[pos++] = (byte) (ch >> 8);
+            buffer[pos++] = (byte) ch;
+            if (pos == buffer.length) {
+                md.update(buffer, 0, pos);
+                pos = 0;
+            }
+        }
+        md.update(buffer, 0, pos);
+        return md.digest();
+    }
+
+    /**
+     * Computes the tag of a fingerprint. It is used to find the results of a
+     * fingerprint on compaction.
+     */
+    private static int tag(String fingerprint) {
+        return ByteBuffer.wrap(sha256().digest(fingerprint.getBytes(UTF_8))).getInt();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,295 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Captures the input texts of filter invocations that took longer than a threshold, so
+ * latency outliers can be reproduced.
+ * <p>
+ * Filters are measured by wrapping them with {@link #wrap(TextFilter, String)}. The
+ * samples are kept in a ring buffer of a fixed size, so the oldest samples are dropped
+ * when it is full. Input texts are truncated to a maximum length.
+ * <p>
+ * Immutable inputs (like {@link String}) are only copied if the invocation was slow.
+ * Other inputs may be changed by the filter, even if it does not work in place (e.g. a
+ * filter chain that starts with an in-place filter). Their beginning is copied before
+ * every invocation, but never more than the maximum sample length.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public class SlowInputSampler {
+
+    private final long thresholdNanos;
+    private final int maxSampleLength;
+    private final Sample[] samples;
+    private int next;
+    private int count;
+
+    /**
+     * Creates a new {@link SlowInputSampler}.
+     *
+     * @param threshold
+     *            Invocations that take longer than this threshold are captured
+     * @param capacity
+     *            Maximum number of samples to keep
+     * @param maxSampleLength
+     *            Maximum number of characters of the input text to keep. Longer texts
+     *            are truncated.
+     */
+    public SlowInputSampler(Duration threshold, int capacity, int maxSampleLength) {
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (maxSampleLength < 0) {
+            throw new IllegalArgumentException("maxSampleLength must not be negative: " + maxSampleLength);
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.maxSampleLength = maxSampleLength;
+        this.samples = new Sample[capacity];
+    }
+
+    /**
+     * Wraps a {@link TextFilter}, so slow invocations are captured by this sampler.
+     *
+     * @param filter
+     *            {@link TextFilter} to be measured
+     * @param name
+     *            Name of the filter, which is stored in the samples
+     * @return Wrapped {@link TextFilter}
+     */
+    public TextFilter wrap(TextFilter filter, String name) {
+        return new SamplingTextFilter(filter, name);
+    }
+
+    /**
+     * Returns the captured samples, the oldest sample first.
+     */
+    public synchronized List<Sample> getSamples() {
+        List<Sample> result = new ArrayList<>(count);
+        int start = next - count;
+        for (int ix = 0; ix < count; ix++) {
+            result.add(samples[Math.floorMod(start + ix, samples.length)]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public synchronized void clear() {
+        for (int ix = 0; ix < samples.length; ix++) {
+            samples[ix] = null;
+        }
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * Writes all captured samples in a human readable form, the oldest sample first.
+     *
+     * @param out
+     *            {@link Appendable} to write the samples to
+     */
+    public void dump(Appendable out) throws IOException {
+        for (Sample sample : getSamples()) {
+            out.append("--- ").append(sample.getTimestamp().toString())
+                    .append(' ').append(sample.getName())
+                    .append(' ').append(String.valueOf(sample.getDuration().toMillis())).append(" ms")
+                    .append(", ").append(String.valueOf(sample.getInputLength())).append(" chars");
+            if (sample.isTruncated()) {
+                out.append(" (truncated)");
+            }
+            out.append('\n').append(sample.getInput()).append('\n');
+        }
+    }
+
+    /**
+     * Adds a sample to the ring buffer.
+     */
+    private synchronized void add(Sample sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Returns the beginning of a text, truncated to the maximum sample length.
+     */
+    private String truncate(CharSequence text) {
+        int len = Math.min(text.length(), maxSampleLength);
+        return text.subSequence(0, len).toString();
+    }
+
+    /**
+     * A captured invocation.
+     */
+    public static class Sample {
+        private final String name;
+        private final Instant timestamp;
+        private final long nanos;
+        private final int inputLength;
+        private final String input;
+
+        private Sample(String name, Instant timestamp, long nanos, int inputLength, String input) {
+            this.name = name;
+            this.timestamp = timestamp;
+            this.nanos = nanos;
+            this.inputLength = inputLength;
+            this.input = input;
+        }
+
+        /**
+         * Returns the name of the filter.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the time when the invocation has ended.
+         */
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the processing time.
+         */
+        public Duration getDuration() {
+            return Duration.ofNanos(nanos);
+        }
+
+        /**
+         * Returns the length of the complete input text.
+         */
+        public int getInputLength() {
+            return inputLength;
+        }
+
+        /**
+         * Returns the input text. It may be truncated.
+         */
+        public String getInput() {
+            return input;
+        }
+
+        /**
+         * Returns {@code true} if the input text was truncated.
+         */
+        public boolean isTruncated() {
+            return input.length() < inputLength;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + getDuration().toMillis() + " ms, " + inputLength + " chars";
+        }
+    }
+
+    /**
+     * A {@link TextFilter} that measures another filter, and captures slow invocations.
+     */
+    private class SamplingTextFilter implements TextFilter {
+        private final TextFilter filter;
+        private final String name;
+
+        SamplingTextFilter(TextFilter filter, String name) {
+            this.filter = Objects.requireNonNull(filter, "filter");
+            this.name = Objects.requireNonNull(name, "name");
+        }
+
+        @Override
+        public CharSequence apply(CharSequence text) {
+            int inputLength = text.length();
+            String copy = preserve(text);
+            long start = System.nanoTime();
+            CharSequence result = filter.apply(text);
+            sample(text, copy, inputLength, System.nanoTime() - start);
+            return result;
+        }
+
+        @Override
+        public void apply(CharSequence text, Appendable out) throws IOException {
+            int inputLength = text.length();
+            String copy = preserve(text);
+            long start = System.nanoTime();
+            filter.apply(text, out);
+            sample(text, copy, inputLength, System.nanoTime() - start);
+        }
+
+        @Override
+        public boolean isInPlace() {
+            return filter.isInPlace();
+        }
+
+        @Override
+        public boolean mayModify(CharSequence text) {
+            return filter.mayModify(text);
+        }
+
+        @Override
+        public int estimateOutputLength(int inputLength) {
+            return filter.estimateOutputLength(inputLength);
+        }
+
+        /**
+         * Copies the beginning of a mutable input text, as it may be changed by the
+         * filter. Strings are immutable, so they are not copied.
+         */
+        @Nullable
+        private String preserve(CharSequence text) {
+            return text instanceof String ? null : truncate(text);
+        }
+
+        /**
+         * Adds a sample if the invocation took longer than the threshold.
+         */
+        private void sample(CharSequence text, @Nullable String copy, int inputLength, long nanos) {
+            if (nanos > thresholdNanos) {
+                String input = copy != null ? copy : truncate(text);
+                add(new Sample(name, Instant.now(), nanos, inputLength, input));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "SamplingTextFilter[" + name + "]";
+        }
+    }
+
+}
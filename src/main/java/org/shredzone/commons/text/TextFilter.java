@@ -19,6 +19,7 @@
  */
 package org.shredzone.commons.text;
 
+import java.io.IOException;
 import java.util.function.Function;
 
 /**
@@ -47,6 +48,76 @@ public interface TextFilter extends Function<CharSequence, CharSequence> {
     @Override
     CharSequence apply(CharSequence t);
 
+    /**
+     * Applies the filter on a {@link CharSequence} and writes the filtered text to the
+     * given {@link Appendable}.
+     * <p>
+     * The default implementation invokes {@link #apply(CharSequence)} and appends the
+     * result. Filters that are able to stream their result should override this method,
+     * so the filtered text is written to the target without collecting it in memory
+     * first.
+     *
+     * @param t
+     *            {@link CharSequence} with the contents to be filtered. If this is a
+     *            {@link StringBuilder} instance, its contents <em>may</em> have changed
+     *            after invocation, and this instance should not be used any more.
+     * @param out
+     *            {@link Appendable} to write the filtered text to
+     * @throws IOException
+     *             if the filtered text could not be written
+     * @since 2.9
+     */
+    default void apply(CharSequence t, Appendable out) throws IOException {
+        out.append(apply(t));
+    }
+
+    /**
+     * Returns {@code true} if this filter works in place. It then modifies a
+     * {@link StringBuilder} that is passed to {@link #apply(CharSequence)}, and returns
+     * the same instance (see {@link #toStringBuilder(CharSequence)}). Filter chains use
+     * this hint to avoid copying the text.
+     *
+     * @return {@code true} if the filter works in place. {@code false} by default.
+     * @since 2.9
+     */
+    default boolean isInPlace() {
+        return false;
+    }
+
+    /**
+     * Quickly checks if this filter may modify the given text. If {@code false} is
+     * returned, the filter would return the text unchanged, so it does not need to be
+     * applied at all. Filter chains use this hint to bypass filters.
+     * <p>
+     * The check should be much cheaper than the filter itself, e.g. by just looking for
+     * the characters that trigger the filter. It may give false positives, but must
+     * never return {@code false} if the filter would change the text.
+     *
+     * @param t
+     *            {@link CharSequence} with the contents to be filtered. It is not changed.
+     * @return {@code true} if the filter may modify the text. {@code true} by default.
+     * @since 2.9
+     */
+    default boolean mayModify(CharSequence t) {
+        return true;
+    }
+
+    /**
+     * Estimates the length of the filtered text. Filter chains use this hint to allocate
+     * buffers that are large enough for the filtered text, so they do not need to grow.
+     * <p>
+     * Filters may adapt the estimation to the texts they have processed before (see
+     * {@link org.shredzone.commons.text.utils.OutputLengthEstimator}).
+     *
+     * @param inputLength
+     *            Length of the text to be filtered
+     * @return Estimated length of the filtered text. The input length by default.
+     * @since 2.9
+     */
+    default int estimateOutputLength(int inputLength) {
+        return inputLength;
+    }
+
     /**
      * Returns a {@link StringBuilder} for the given {@link CharSequence}. If the
      * {@link CharSequence} is a {@link StringBuilder} instance, it will be reused.
@@ -0,0 +1,195 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A chain of {@link TextFilter} that are applied one after the other, and act as a single
+ * {@link TextFilter}.
+ * <p>
+ * Unlike {@link java.util.function.Function#andThen(java.util.function.Function)}, the
+ * chain only uses two buffers that are passed back and forth between the filters.
+ * Filters that work in place (see {@link TextFilter#isInPlace()}) just modify the
+ * current buffer. All other filters write their result to the other buffer.
+ * <p>
+ * Before a filter is applied, it is asked if it may modify the current text at all (see
+ * {@link TextFilter#mayModify(CharSequence)}). If not, the filter is bypassed. If no
+ * filter needs to be applied, the input text itself is returned.
+ * <p>
+ * The buffers are allocated with the output length that is estimated by the filter (see
+ * {@link TextFilter#estimateOutputLength(int)}), so they rarely need to grow.
+ * <p>
+ * The chain is immutable. It is thread safe if all the chained filters are thread safe.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public class TextFilterChain implements TextFilter {
+
+    private final TextFilter[] filters;
+
+    /**
+     * Creates a new {@link TextFilterChain}.
+     *
+     * @param filters
+     *            {@link TextFilter} to be applied, in that order
+     */
+    public TextFilterChain(TextFilter... filters) {
+        this.filters = filters.clone();
+        for (TextFilter filter : this.filters) {
+            Objects.requireNonNull(filter, "filter");
+        }
+    }
+
+    /**
+     * Creates a new {@link TextFilterChain}.
+     *
+     * @param filters
+     *            {@link List} of {@link TextFilter} to be applied, in that order
+     */
+    public TextFilterChain(List<? extends TextFilter> filters) {
+        this(filters.toArray(new TextFilter[0]));
+    }
+
+    @Override
+    public CharSequence apply(CharSequence text) {
+        return process(text, filters.length);
+    }
+
+    @Override
+    public void apply(CharSequence text, Appendable out) throws IOException {
+        if (filters.length == 0) {
+            out.append(text);
+            return;
+        }
+
+        // The last filter writes directly to the Appendable
+        CharSequence result = process(text, filters.length - 1);
+        TextFilter last = filters[filters.length - 1];
+        if (last.mayModify(result)) {
+            last.apply(result, out);
+        } else {
+            out.append(result);
+        }
+    }
+
+    @Override
+    public boolean isInPlace() {
+        for (TextFilter filter : filters) {
+            if (!filter.isInPlace()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        // If the first filter does not change the text, the next filter gets the same
+        // text, so all filters can be asked about the input text.
+        for (TextFilter filter : filters) {
+            if (filter.mayModify(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int estimateOutputLength(int inputLength) {
+        int length = inputLength;
+        for (TextFilter filter : filters) {
+            length = filter.estimateOutputLength(length);
+        }
+        return length;
+    }
+
+    /**
+     * Applies the filters on the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param count
+     *            Number of filters to be applied, starting from the first filter
+     * @return Filtered text
+     */
+    private CharSequence process(CharSequence text, int count) {
+        CharSequence current = text;
+        StringBuilder spare = null;
+        boolean owned = false;
+
+        for (int ix = 0; ix < count; ix++) {
+            TextFilter filter = filters[ix];
+
+            if (!filter.mayModify(current)) {
+                continue;
+            }
+
+            if (filter.isInPlace()) {
+                CharSequence result = filter.apply(current);
+                owned &= result == current;
+                current = result;
+                continue;
+            }
+
+            spare = prepare(spare, filter.estimateOutputLength(current.length()));
+            try {
+                filter.apply(current, spare);
+            } catch (IOException ex) {
+                // StringBuilder does not throw IOException
+                throw new UncheckedIOException(ex);
+            }
+
+            // The previous buffer is not needed any more, and becomes the spare buffer.
+            // Buffers that were not created by the chain must not be reused though.
+            StringBuilder result = spare;
+            spare = owned ? (StringBuilder) current : null;
+            current = result;
+            owned = true;
+        }
+
+        return current;
+    }
+
+    /**
+     * Prepares a spare buffer for the next filter.
+     *
+     * @param spare
+     *            Spare buffer, or {@code null} if there is none yet
+     * @param capacity
+     *            Expected capacity
+     * @return Empty buffer to be used
+     */
+    private static StringBuilder prepare(@Nullable StringBuilder spare, int capacity) {
+        if (spare == null) {
+            return new StringBuilder(capacity);
+        }
+        spare.setLength(0);
+        spare.ensureCapacity(capacity);
+        return spare;
+    }
+
+}
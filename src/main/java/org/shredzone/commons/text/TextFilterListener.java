@@ -0,0 +1,69 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+/**
+ * Receives the measurements of an {@link InstrumentedTextFilter}. It can be implemented
+ * to bridge the measurements to a monitoring system.
+ * <p>
+ * Listeners are invoked synchronously, by the thread that applied the filter. They must
+ * be thread safe, and should return quickly.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ * @see TextFilterStatistics
+ */
+@FunctionalInterface
+public interface TextFilterListener {
+
+    /**
+     * Invoked after a filter has been applied.
+     *
+     * @param name
+     *            Name of the filter
+     * @param inputLength
+     *            Length of the input text
+     * @param outputLength
+     *            Length of the output text
+     * @param nanos
+     *            Processing time, in nanoseconds
+     */
+    void onApply(String name, int inputLength, int outputLength, long nanos);
+
+    /**
+     * Invoked after a filter has failed with an exception. The exception is rethrown
+     * after this method returns.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param name
+     *            Name of the filter
+     * @param inputLength
+     *            Length of the input text
+     * @param nanos
+     *            Processing time until the failure, in nanoseconds
+     * @param ex
+     *            Exception that was thrown by the filter
+     */
+    default void onFailure(String name, int inputLength, long nanos, Throwable ex) {
+        // does nothing by default
+    }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A {@link TextFilterListener} that collects statistics for every filter name.
+ * <p>
+ * For every filter, it counts the calls and failures, sums up the input and output
+ * lengths and the processing time, and keeps a latency histogram. The histogram has
+ * buckets of powers of two nanoseconds, so it has a constant size and can be updated
+ * without locking.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public class TextFilterStatistics implements TextFilterListener {
+
+    private final Map<String, Metrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApply(String name, int inputLength, int outputLength, long nanos) {
+        metrics(name).record(inputLength, outputLength, nanos);
+    }
+
+    @Override
+    public void onFailure(String name, int inputLength, long nanos, Throwable ex) {
+        metrics(name).failures.increment();
+    }
+
+    /**
+     * Returns the names of all filters that have been measured.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(metrics.keySet()));
+    }
+
+    /**
+     * Returns the {@link Metrics} of a filter.
+     *
+     * @param name
+     *            Filter name
+     * @return {@link Metrics}, or {@code null} if this filter has not been measured yet
+     */
+    @Nullable
+    public Metrics get(String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * Removes all statistics.
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private Metrics metrics(String name) {
+        Metrics result = metrics.get(name);
+        if (result == null) {
+            result = metrics.computeIfAbsent(name, k -> new Metrics());
+        }
+        return result;
+    }
+
+    /**
+     * The statistics of a single filter. The values are updated continuously, so they
+     * may be slightly inconsistent while the filter is in use.
+     */
+    public static class Metrics {
+        /**
+         * Number of latency histogram buckets. The last bucket takes all calls of 2^62
+         * nanoseconds or more.
+         */
+        public static final int BUCKETS = 63;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder inputChars = new LongAdder();
+        private final LongAdder outputChars = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        Metrics() {
+            // created by TextFilterStatistics only
+        }
+
+        private void record(int inputLength, int outputLength, long nanos) {
+            calls.increment();
+            inputChars.add(inputLength);
+            outputChars.add(outputLength);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(bucket(nanos));
+        }
+
+        /**
+         * Returns the number of successful calls.
+         */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * Returns the number of calls that failed with an exception.
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Returns the total length of all input texts.
+         */
+        public long getInputChars() {
+            return inputChars.sum();
+        }
+
+        /**
+         * Returns the total length of all output texts.
+         */
+        public long getOutputChars() {
+            return outputChars.sum();
+        }
+
+        /**
+         * Returns the expansion ratio, which is the total output length divided by the
+         * total input length. It is 1.0 if there was no input yet.
+         */
+        public double getExpansionRatio() {
+            long input = getInputChars();
+            return input > 0 ? (double) getOutputChars() / input : 1.0;
+        }
+
+        /**
+         * Returns the total processing time of all successful calls, in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Returns the mean processing time of a call, in nanoseconds.
+         */
+        public long getMeanNanos() {
+            long count = getCalls();
+            return count > 0 ? getTotalNanos() / count : 0L;
+        }
+
+        /**
+         * Returns the longest processing time of a call, in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Returns the latency histogram. Bucket 0 counts the calls that took less than
+         * 2 nanoseconds, and bucket n (n &gt; 0) counts the calls that took from 2^n to
+         * 2^(n+1)-1 nanoseconds.
+         *
+         * @return Copy of the histogram, with {@link #BUCKETS} entries
+         */
+        public long[] getHistogram() {
+            long[] result = new long[BUCKETS];
+            for (int ix = 0; ix < BUCKETS; ix++) {
+                result[ix] = histogram.get(ix);
+            }
+            return result;
+        }
+
+        /**
+         * Returns an estimation of a latency percentile. It is the upper limit of the
+         * histogram bucket that contains the percentile, so it is at most twice the
+         * actual value.
+         *
+         * @param percentile
+         *            Percentile, between 0.0 and 100.0 (e.g. 99.0)
+         * @return Estimated latency, in nanoseconds. 0 if there were no calls yet.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0.0 || percentile > 100.0) {
+                throw new IllegalArgumentException("percentile out of range: " + percentile);
+            }
+
+            long[] counts = getHistogram();
+            long total = 0L;
+            for (long count : counts) {
+                total += count;
+            }
+            if (total == 0L) {
+                return 0L;
+            }
+
+            long threshold = (long) Math.ceil(total * percentile / 100.0);
+            long sum = 0L;
+            for (int ix = 0; ix < BUCKETS; ix++) {
+                sum += counts[ix];
+                if (sum >= threshold && sum > 0L) {
+                    return ix < BUCKETS - 1 ? (2L << ix) - 1L : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "calls=" + getCalls()
+                    + ", failures=" + getFailures()
+                    + ", meanNanos=" + getMeanNanos()
+                    + ", maxNanos=" + getMaxNanos()
+                    + ", expansion=" + getExpansionRatio();
+        }
+
+        /**
+         * Returns the histogram bucket of a processing time.
+         */
+        private static int bucket(long nanos) {
+            if (nanos <= 1L) {
+                return 0;
+            }
+            return Math.min(63 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Utility methods for {@link TextFilter}.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public final class TextFilters {
+
+    private TextFilters() {
+        // utility class without constructor
+    }
+
+    /**
+     * Applies a thread safe {@link TextFilter} on a batch of texts, in parallel. The
+     * common {@link ForkJoinPool} is used.
+     *
+     * @param texts
+     *            Texts to be filtered. They are not modified.
+     * @param filter
+     *            Thread safe {@link TextFilter} to apply
+     * @return Filtered texts, in the same order as the input texts
+     * @see #applyAll(List, Supplier, Executor)
+     */
+    public static List<String> applyAll(List<? extends CharSequence> texts, TextFilter filter) {
+        return applyAll(texts, filter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies a thread safe {@link TextFilter} on a batch of texts, in parallel.
+     *
+     * @param texts
+     *            Texts to be filtered. They are not modified.
+     * @param filter
+     *            Thread safe {@link TextFilter} to apply
+     * @param executor
+     *            {@link Executor} that runs the workers
+     * @return Filtered texts, in the same order as the input texts
+     * @see #applyAll(List, Supplier, Executor)
+     */
+    public static List<String> applyAll(List<? extends CharSequence> texts,
+                TextFilter filter, Executor executor) {
+        Objects.requireNonNull(filter, "filter");
+        return applyAll(texts, () -> filter, executor);
+    }
+
+    /**
+     * Applies a {@link TextFilter} on a batch of texts, in parallel.
+     * <p>
+     * The texts are distributed to a number of workers that run on the given
+     * {@link Executor}. Each worker gets its own {@link TextFilter} instance from the
+     * factory, so the filters do not need to be thread safe. Identical texts are only
+     * filtered once, and share the same result.
+     * <p>
+     * If a filter throws an exception, all workers stop, and the exception is rethrown.
+     *
+     * @param texts
+     *            Texts to be filtered. They are not modified.
+     * @param factory
+     *            {@link Supplier} of {@link TextFilter} instances, one per worker
+     * @param executor
+     *            {@link Executor} that runs the workers
+     * @return Filtered texts, in the same order as the input texts
+     */
+    public static List<String> applyAll(List<? extends CharSequence> texts,
+                Supplier<? extends TextFilter> factory, Executor executor) {
+        Objects.requireNonNull(factory, "factory");
+        Objects.requireNonNull(executor, "executor");
+
+        // Find identical texts. mapping[ix] is the index of the text in the unique list.
+        int size = texts.size();
+        List<String> unique = new ArrayList<>(size);
+        Map<String, Integer> indexes = new HashMap<>();
+        int[] mapping = new int[size];
+        for (int ix = 0; ix < size; ix++) {
+            String text = texts.get(ix).toString();
+            Integer index = indexes.putIfAbsent(text, unique.size());
+            if (index == null) {
+                index = unique.size();
+                unique.add(text);
+            }
+            mapping[ix] = index;
+        }
+
+        String[] results = process(unique, factory, executor);
+
+        String[] ordered = new String[size];
+        for (int ix = 0; ix < size; ix++) {
+            ordered[ix] = results[mapping[ix]];
+        }
+        return Collections.unmodifiableList(Arrays.asList(ordered));
+    }
+
+    /**
+     * Filters the texts in parallel.
+     *
+     * @param texts
+     *            Texts to be filtered
+     * @param factory
+     *            {@link Supplier} of {@link TextFilter} instances, one per worker
+     * @param executor
+     *            {@link Executor} that runs the workers
+     * @return Array of filtered texts, in the same order
+     */
+    private static String[] process(List<String> texts,
+                Supplier<? extends TextFilter> factory, Executor executor) {
+        int size = texts.size();
+        String[] results = new String[size];
+        AtomicInteger next = new AtomicInteger();
+
+        // Workers take the next text until all texts are processed, so long texts do not
+        // hold up the other workers.
+        Runnable worker = () -> {
+            TextFilter filter = factory.get();
+            try {
+                int ix;
+                while ((ix = next.getAndIncrement()) < size) {
+                    results[ix] = filter.apply(texts.get(ix)).toString();
+                }
+            } catch (RuntimeException | Error ex) {
+                next.set(size); // stop all other workers
+                throw ex;
+            }
+        };
+
+        int workers = Math.min(size, parallelism(executor));
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int ix = 0; ix < workers; ix++) {
+            futures[ix] = CompletableFuture.runAsync(worker, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+
+        // join() guarantees that all results written by the workers are visible here
+        return results;
+    }
+
+    /**
+     * Returns the number of workers to be used with the {@link Executor}.
+     */
+    private static int parallelism(Executor executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+}
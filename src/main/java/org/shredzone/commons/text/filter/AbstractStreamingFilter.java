@@ -0,0 +1,93 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.io.IOException;
+
+import org.shredzone.commons.text.TextFilter;
+import org.shredzone.commons.text.utils.FilterEvent;
+import org.shredzone.commons.text.utils.OutputLengthEstimator;
+
+/**
+ * Base class of the filters that are able to stream their result. It reports the
+ * filter execution to the JDK Flight Recorder (see {@link FilterEvent}), and estimates
+ * the output length from the texts processed so far (see {@link OutputLengthEstimator}).
+ *
+ * @author Richard "Shred" Körber
+ */
+abstract class AbstractStreamingFilter implements TextFilter {
+
+    private final OutputLengthEstimator estimator;
+
+    /**
+     * Creates a new {@link AbstractStreamingFilter}.
+     *
+     * @param initialRatio
+     *            Expected ratio of the output length to the input length
+     * @param overhead
+     *            Number of characters that are added to every text
+     */
+    AbstractStreamingFilter(double initialRatio, int overhead) {
+        estimator = new OutputLengthEstimator(initialRatio, overhead);
+    }
+
+    @Override
+    public CharSequence apply(CharSequence text) {
+        FilterEvent event = FilterEvent.start(getClass(), "apply", text.length());
+        CharSequence result = filter(text);
+        estimator.record(text.length(), result.length());
+        event.finish(result.length());
+        return result;
+    }
+
+    @Override
+    public void apply(CharSequence text, Appendable out) throws IOException {
+        FilterEvent event = FilterEvent.start(getClass(), "apply", text.length(), out);
+        int mark = OutputLengthEstimator.mark(out);
+        filter(text, out);
+        estimator.record(text.length(), out, mark);
+        event.finish(out);
+    }
+
+    @Override
+    public int estimateOutputLength(int inputLength) {
+        return estimator.estimate(inputLength);
+    }
+
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
+    abstract CharSequence filter(CharSequence text);
+
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    abstract void filter(CharSequence text, Appendable out) throws IOException;
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+/**
+ * Helper methods for scanning a {@link CharSequence}, shared by the filters.
+ *
+ * @author Richard "Shred" Körber
+ */
+final class CharSequences {
+
+    private CharSequences() {
+        // utility class without constructor
+    }
+
+    /**
+     * Returns the position of the next occurrence of the character, or -1 if there is
+     * none.
+     */
+    static int indexOf(CharSequence text, char ch, int from) {
+        int len = text.length();
+        for (int ix = from; ix < len; ix++) {
+            if (text.charAt(ix) == ch) {
+                return ix;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the first character that is not a whitespace, or
+     * {@code end} if there is none.
+     */
+    static int skipWhitespaces(CharSequence text, int from, int end) {
+        int pos = from;
+        while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Checks if the text contains the given string at the given position.
+     *
+     * @param text
+     *            Text to be checked
+     * @param pos
+     *            Position in the text
+     * @param str
+     *            String to be found. If the case is to be ignored, it must be in lower
+     *            case.
+     * @param ignoreCase
+     *            {@code true} to ignore the case of the text
+     * @return {@code true} if the string was found at that position
+     */
+    static boolean regionMatches(CharSequence text, int pos, String str, boolean ignoreCase) {
+        int len = str.length();
+        if (pos + len > text.length()) {
+            return false;
+        }
+
+        for (int ix = 0; ix < len; ix++) {
+            char ch = text.charAt(pos + ix);
+            if (ignoreCase) {
+                ch = Character.toLowerCase(ch);
+            }
+            if (ch != str.charAt(ix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -48,6 +48,7 @@ public class GithubFlavoredMarkdownFilter extends MarkdownFilter {
      */
     public void setAutolinkEnabled(boolean autolink) {
         this.autolink = autolink;
+        invalidate();
     }
 
     @Override
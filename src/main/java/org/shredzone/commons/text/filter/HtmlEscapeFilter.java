@@ -19,33 +19,171 @@
  */
 package org.shredzone.commons.text.filter;
 
-import org.shredzone.commons.text.TextFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * Escapes a plain text so it can be safely used in HTML. '&lt;', '&amp;' and '&quot;' are
  * replaced by their respective HTML entities.
+ * <p>
+ * The characters to be escaped depend on the {@link Context}. By default, the text is
+ * escaped for the use as HTML content. If there is nothing to escape, the text is
+ * returned unchanged.
  *
  * @author Richard "Shred" Körber
  */
-public class HtmlEscapeFilter implements TextFilter {
+public class HtmlEscapeFilter extends AbstractStreamingFilter {
 
-    @Override
-    public CharSequence apply(CharSequence text) {
-        int len = text.length();
-        StringBuilder sb = new StringBuilder(len * 11 / 10);
-        for (int ix = 0; ix < len; ix++) {
-            char ch = text.charAt(ix);
-            if (ch == '<') {
-                sb.append("&lt;");
-            } else if (ch == '&') {
-                sb.append("&amp;");
-            } else if (ch == '"') {
-                sb.append("&quot;");
-            } else {
-                sb.append(ch);
+    /**
+     * The context that the escaped text is used in.
+     *
+     * @since 2.9
+     */
+    public enum Context {
+        /**
+         * HTML content. '&lt;', '&amp;' and '&quot;' are escaped.
+         */
+        TEXT("<&lt;", "&&amp;", "\"&quot;"),
+
+        /**
+         * HTML attribute values in single or double quotes. '&lt;', '&amp;', '&quot;'
+         * and '&#39;' are escaped.
+         */
+        ATTRIBUTE("<&lt;", "&&amp;", "\"&quot;", "'&#39;"),
+
+        /**
+         * XML content and attribute values. '&lt;', '&gt;', '&amp;', '&quot;' and '&#39;'
+         * are escaped.
+         */
+        XML("<&lt;", ">&gt;", "&&amp;", "\"&quot;", "'&apos;");
+
+        /**
+         * Lookup table of the entities. The index is the character to be escaped.
+         * {@code null} means that the character is not escaped.
+         */
+        private final String[] entities = new String['>' + 1];
+
+        /**
+         * Finds the characters to be escaped.
+         */
+        private final CharScanner scanner;
+
+        /**
+         * Creates a {@link Context}.
+         *
+         * @param escapes
+         *            Characters to be escaped. The first character of each string is the
+         *            character to be escaped, the remainder is its entity.
+         */
+        Context(String... escapes) {
+            char[] triggers = new char[escapes.length];
+            for (int ix = 0; ix < escapes.length; ix++) {
+                triggers[ix] = escapes[ix].charAt(0);
+                entities[triggers[ix]] = escapes[ix].substring(1);
             }
+            scanner = new CharScanner(triggers);
+        }
+    }
+
+    private Context context = Context.TEXT;
+
+    /**
+     * Creates a new {@link HtmlEscapeFilter}.
+     */
+    public HtmlEscapeFilter() {
+        super(1.1, 0);
+    }
+
+    /**
+     * Sets the context that the escaped text is used in.
+     *
+     * @param context
+     *            {@link Context} to be used. Defaults to {@link Context#TEXT}.
+     * @since 2.9
+     */
+    public void setContext(Context context) {
+        this.context = Objects.requireNonNull(context, "context");
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return context.scanner.scan(text).next(0) >= 0;
+    }
+
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text, or the text itself if there was nothing to escape
+     */
+    @Override
+    CharSequence filter(CharSequence text) {
+        Context ctx = context;
+        CharScanner.Scan scan = ctx.scanner.scan(text);
+        int first = scan.next(0);
+        if (first < 0) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            escape(text, first, scan, ctx.entities, sb);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
         }
         return sb;
     }
 
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        Context ctx = context;
+        CharScanner.Scan scan = ctx.scanner.scan(text);
+        int first = scan.next(0);
+        if (first < 0) {
+            out.append(text);
+            return;
+        }
+        escape(text, first, scan, ctx.entities, out);
+    }
+
+    /**
+     * Escapes the text, and writes the result to the {@link Appendable}. The runs of
+     * characters between the escaped characters are copied in one piece.
+     *
+     * @param text
+     *            Text to be escaped
+     * @param first
+     *            Position of the first character to be escaped
+     * @param scan
+     *            {@link CharScanner.Scan} that finds the characters to be escaped
+     * @param entities
+     *            Lookup table of the entities
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    private static void escape(CharSequence text, int first, CharScanner.Scan scan,
+                String[] entities, Appendable out) throws IOException {
+        int start = 0;
+        int ix = first;
+        while (ix >= 0) {
+            out.append(text, start, ix).append(entities[text.charAt(ix)]);
+            start = ix + 1;
+            ix = scan.next(start);
+        }
+        out.append(text, start, text.length());
+    }
+
 }
@@ -0,0 +1,243 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import static java.util.Collections.unmodifiableSet;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An immutable policy of HTML tags and attributes that are accepted by a
+ * {@link SimplifyHtmlFilter}.
+ * <p>
+ * The accepted tags and attributes are compiled into perfect hash tables that map them
+ * to small integer ids, so they can be looked up quickly and without creating any
+ * objects.
+ * <p>
+ * Policies are created by a {@link Builder}. Identical policies are interned, so the
+ * same instance is returned for the same set of tags and attributes. A policy is thread
+ * safe, and can be shared by any number of {@link SimplifyHtmlFilter}.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public final class HtmlPolicy {
+
+    private static final Map<HtmlPolicy, WeakReference<HtmlPolicy>> INTERNED = new WeakHashMap<>();
+    private static final HtmlPolicy EMPTY = builder().build();
+
+    private final Map<String, Set<String>> accepted;
+    private final NameTable tags;
+    private final @Nullable NameTable[] attributes;
+    private final int hash;
+
+    /**
+     * Creates a new {@link HtmlPolicy}.
+     *
+     * @param accepted
+     *            Map of accepted tags and their accepted attributes, all in lower case
+     */
+    private HtmlPolicy(TreeMap<String, Set<String>> accepted) {
+        this.accepted = Collections.unmodifiableMap(accepted);
+        this.hash = accepted.hashCode();
+
+        tags = new NameTable(accepted.keySet());
+        attributes = new NameTable[tags.size()];
+        for (Map.Entry<String, Set<String>> entry : accepted.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                String tag = entry.getKey();
+                attributes[tags.lookup(tag, 0, tag.length())] = new NameTable(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns an empty {@link HtmlPolicy} that does not accept any tags.
+     */
+    public static HtmlPolicy empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a new {@link Builder} for a {@link HtmlPolicy}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new {@link Builder} that is initialized with the tags and attributes of
+     * this policy.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        for (Map.Entry<String, Set<String>> entry : accepted.entrySet()) {
+            builder.accepted.put(entry.getKey(), new TreeSet<>(entry.getValue()));
+        }
+        return builder;
+    }
+
+    /**
+     * Returns all accepted tags, in lower case.
+     */
+    public Set<String> getAcceptedTags() {
+        return accepted.keySet();
+    }
+
+    /**
+     * Returns all accepted attributes of a tag, in lower case.
+     *
+     * @param tag
+     *            Tag name
+     * @return Set of accepted attributes. Empty if the tag is not accepted, or does not
+     *         accept any attributes.
+     */
+    public Set<String> getAcceptedAttributes(String tag) {
+        Set<String> result = accepted.get(tag.toLowerCase(Locale.ROOT));
+        return result != null ? result : Collections.emptySet();
+    }
+
+    /**
+     * Returns the {@link NameTable} of accepted tags.
+     */
+    NameTable tags() {
+        return tags;
+    }
+
+    /**
+     * Returns the {@link NameTable} of accepted attributes of a tag.
+     *
+     * @param tag
+     *            Tag id
+     * @return {@link NameTable} of accepted attributes, or {@code null} if the tag does
+     *         not accept any attributes
+     */
+    @Nullable
+    NameTable attributes(int tag) {
+        return attributes[tag];
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HtmlPolicy)) {
+            return false;
+        }
+        HtmlPolicy other = (HtmlPolicy) obj;
+        return hash == other.hash && accepted.equals(other.accepted);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HtmlPolicy" + accepted;
+    }
+
+    /**
+     * Returns the interned instance of a policy.
+     *
+     * @param policy
+     *            {@link HtmlPolicy} to intern
+     * @return Interned {@link HtmlPolicy} that is equal to the given policy
+     */
+    private static HtmlPolicy intern(HtmlPolicy policy) {
+        synchronized (INTERNED) {
+            WeakReference<HtmlPolicy> ref = INTERNED.get(policy);
+            HtmlPolicy interned = ref != null ? ref.get() : null;
+            if (interned != null) {
+                return interned;
+            }
+            INTERNED.put(policy, new WeakReference<>(policy));
+            return policy;
+        }
+    }
+
+    /**
+     * A builder for {@link HtmlPolicy}. Tag and attribute names are case-insensitive.
+     */
+    public static class Builder {
+        private final TreeMap<String, TreeSet<String>> accepted = new TreeMap<>();
+
+        private Builder() {
+            // use HtmlPolicy.builder()
+        }
+
+        /**
+         * Accepts a tag, without any attributes.
+         *
+         * @param tag
+         *            HTML tag that is accepted (without angle brackets, e.g. "strong")
+         * @return itself
+         */
+        public Builder acceptTag(String tag) {
+            return acceptTag(tag, (String[]) null);
+        }
+
+        /**
+         * Accepts a tag, along with accepted attributes. If the tag was already
+         * accepted, its attributes are replaced.
+         *
+         * @param tag
+         *            HTML tag that is accepted (without angle brackets, e.g. "img")
+         * @param attributes
+         *            an array of accepted attributes (e.g. "src", "alt")
+         * @return itself
+         */
+        public Builder acceptTag(String tag, @Nullable String... attributes) {
+            TreeSet<String> attributeSet = new TreeSet<>();
+            if (attributes != null) {
+                for (String attribute : attributes) {
+                    attributeSet.add(attribute.toLowerCase(Locale.ROOT));
+                }
+            }
+            accepted.put(Objects.requireNonNull(tag).toLowerCase(Locale.ROOT), attributeSet);
+            return this;
+        }
+
+        /**
+         * Builds the {@link HtmlPolicy}. If an identical policy already exists, that
+         * instance is returned instead.
+         */
+        public HtmlPolicy build() {
+            TreeMap<String, Set<String>> result = new TreeMap<>();
+            for (Map.Entry<String, TreeSet<String>> entry : accepted.entrySet()) {
+                result.put(entry.getKey(), unmodifiableSet(new TreeSet<>(entry.getValue())));
+            }
+            return intern(new HtmlPolicy(result));
+        }
+    }
+
+}
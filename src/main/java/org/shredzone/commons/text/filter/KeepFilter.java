@@ -33,4 +33,14 @@ public class KeepFilter implements TextFilter {
         return text;
     }
 
+    @Override
+    public boolean isInPlace() {
+        return true;
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return false;
+    }
+
 }
@@ -19,36 +19,47 @@
  */
 package org.shredzone.commons.text.filter;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
-import org.shredzone.commons.text.TextFilter;
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that detects links in a text, and creates an HTML &lt;a&gt; tag around each
  * link. http, https and ftp protocols are detected.
+ * <p>
+ * A link ends at the next whitespace, or at a character (or HTML entity) that is not
+ * permitted in an URL. Trailing punctuation marks are not considered part of the link,
+ * and neither is a trailing closing parenthesis that has no opening counterpart within
+ * the link. The text is scanned in a single pass, so the filter runs in linear time.
  *
  * @author Richard "Shred" Körber
  */
-public class LinkToUrlFilter implements TextFilter {
+public class LinkToUrlFilter extends AbstractStreamingFilter {
 
-    // TODO: allow trailing period, comma etc.
-    private static final Pattern URL_PATTERN = Pattern.compile(
-            "(.*?)((?:https?|ftp)://\\S+?)(?=[.,;:!)]?\\s|$)",
-            Pattern.CASE_INSENSITIVE
-            );
+    // Detected schemes, longest first
+    private static final String[] SCHEMES = {"https", "http", "ftp"};
+
+    // Entities that terminate a link
+    private static final String[] TERMINATING_ENTITIES = {"&quot;", "&lt;", "&gt;"};
+
+    // Punctuation marks that are not part of a link if at its end
+    private static final String TRAILING_PUNCTUATION = ".,;:!?";
+
+    private static final CharScanner COLON = new CharScanner(':');
 
     private boolean noFollow = false;
     private boolean noReferrer = false;
     private boolean noOpener = true;
     private @Nullable String target = null;
-    private @Nullable String tag = null;
+    private String tagAttributes = "";
 
     /**
      * Creates a new {@link LinkToUrlFilter}.
      */
     public LinkToUrlFilter() {
+        super(2.0, 0);
         updateTag();
     }
 
@@ -126,10 +137,10 @@ public class LinkToUrlFilter implements TextFilter {
     }
 
     /**
-     * Updates the tag template from the current settings.
+     * Updates the tag attributes from the current settings.
      */
     private void updateTag() {
-        StringBuilder sb = new StringBuilder("$1<a href=\"$2\"");
+        StringBuilder sb = new StringBuilder("\"");
         StringBuilder relSb = new StringBuilder();
         if (noFollow) {
             relSb.append("nofollow ");
@@ -146,17 +157,196 @@ public class LinkToUrlFilter implements TextFilter {
         if (relSb.length() > 0) {
             sb.append(" rel=\"").append(relSb.toString().trim()).append('"');
         }
-        sb.append(">$2</a>");
-        tag = sb.toString();
+        sb.append('>');
+        tagAttributes = sb.toString();
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        int len = text.length();
+        CharScanner.Scan scan = COLON.scan(text);
+        for (int ix = scan.next(0); ix >= 0 && ix + 2 < len; ix = scan.next(ix + 1)) {
+            if (text.charAt(ix + 1) == '/' && text.charAt(ix + 2) == '/') {
+                return true;
+            }
+        }
+        return false;
     }
 
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
     @Override
-    public CharSequence apply(CharSequence text) {
-        Matcher m = URL_PATTERN.matcher(text);
-        if (!m.matches()) {
+    CharSequence filter(CharSequence text) {
+        int colon = findLink(text, 0);
+        if (colon < 0) {
             return text;
         }
-        return m.replaceAll(tag);
+
+        StringBuilder sb = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            replace(text, colon, sb);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
+        return sb;
+    }
+
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        int colon = findLink(text, 0);
+        if (colon < 0) {
+            out.append(text);
+            return;
+        }
+        replace(text, colon, out);
+    }
+
+    /**
+     * Replaces all links in the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param firstColon
+     *            Position of the scheme separator of the first link
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    private void replace(CharSequence text, int firstColon, Appendable out) throws IOException {
+        int lastEnd = 0;
+        int colon = firstColon;
+
+        do {
+            int start = findSchemeStart(text, colon, lastEnd);
+            int end = findLinkEnd(text, colon + 3);
+
+            out.append(text, lastEnd, start);
+            out.append("<a href=\"").append(text, start, end);
+            out.append(tagAttributes);
+            out.append(text, start, end).append("</a>");
+
+            lastEnd = end;
+            colon = findLink(text, end);
+        } while (colon >= 0);
+
+        out.append(text, lastEnd, text.length());
+    }
+
+    /**
+     * Finds the next link.
+     *
+     * @param text
+     *            Text to be scanned
+     * @param from
+     *            Position to start from. The link must not start before this position.
+     * @return Position of the scheme separator colon of the next link, or -1 if there is
+     *         no further link in the text
+     */
+    private static int findLink(CharSequence text, int from) {
+        int len = text.length();
+        for (int ix = from; ix < len; ix++) {
+            if (text.charAt(ix) == ':'
+                    && findSchemeStart(text, ix, from) >= 0
+                    && findLinkEnd(text, ix + 3) > ix + 3) {
+                return ix;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the start of a link's scheme.
+     *
+     * @param text
+     *            Text to be scanned
+     * @param colon
+     *            Position of a colon
+     * @param min
+     *            Minimum start position of the scheme
+     * @return Start position of the scheme, or -1 if the colon is not a scheme separator
+     *         of a detected scheme
+     */
+    private static int findSchemeStart(CharSequence text, int colon, int min) {
+        if (colon + 2 >= text.length()
+                || text.charAt(colon + 1) != '/' || text.charAt(colon + 2) != '/') {
+            return -1;
+        }
+
+        for (String scheme : SCHEMES) {
+            int start = colon - scheme.length();
+            if (start >= min && CharSequences.regionMatches(text, start, scheme, true)) {
+                return start;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds the end of a link.
+     *
+     * @param text
+     *            Text to be scanned
+     * @param from
+     *            Position right after the "://" scheme separator
+     * @return End position of the link. If it is equal to {@code from}, there is no
+     *         valid link at this position.
+     */
+    private static int findLinkEnd(CharSequence text, int from) {
+        int len = text.length();
+        int open = 0;
+        int close = 0;
+        int end = from;
+
+        while (end < len) {
+            char ch = text.charAt(end);
+            if (Character.isWhitespace(ch) || ch == '<' || ch == '>' || ch == '"'
+                    || (ch == '&' && isTerminatingEntity(text, end))) {
+                break;
+            } else if (ch == '(') {
+                open++;
+            } else if (ch == ')') {
+                close++;
+            }
+            end++;
+        }
+
+        while (end > from) {
+            char ch = text.charAt(end - 1);
+            if (ch == ')' && close > open) {
+                close--;
+            } else if (TRAILING_PUNCTUATION.indexOf(ch) < 0) {
+                break;
+            }
+            end--;
+        }
+
+        return end;
+    }
+
+    /**
+     * Checks if there is an entity at the given position that terminates a link.
+     */
+    private static boolean isTerminatingEntity(CharSequence text, int pos) {
+        for (String entity : TERMINATING_ENTITIES) {
+            if (CharSequences.regionMatches(text, pos, entity, false)) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
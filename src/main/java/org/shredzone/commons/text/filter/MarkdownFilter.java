@@ -35,12 +35,16 @@ import org.commonmark.renderer.html.AttributeProvider;
 import org.commonmark.renderer.html.HtmlRenderer;
 import org.shredzone.commons.text.LinkAnalyzer;
 import org.shredzone.commons.text.TextFilter;
+import org.shredzone.commons.text.utils.FilterEvent;
 
 /**
  * A filter that converts Markdown to HTML.
  * <p>
  * Uses <a href="https://github.com/atlassian/commonmark-java">commonmark-java</a> for
  * converting Markdown to HTML.
+ * <p>
+ * The parser and renderer are created on the first invocation, and are reused until the
+ * configuration is changed.
  *
  * @see <a href="https://github.com/atlassian/commonmark-java">commonmark-java</a>
  * @author Richard "Shred" Körber
@@ -49,6 +53,7 @@ public class MarkdownFilter implements TextFilter {
 
     private @Nullable LinkAnalyzer analyzer;
     private @Nullable String preClass;
+    private volatile @Nullable Converter converter;
 
     /**
      * Sets a {@link LinkAnalyzer} to be used for converting links and image source URLs.
@@ -58,6 +63,7 @@ public class MarkdownFilter implements TextFilter {
      */
     public void setAnalyzer(@Nullable LinkAnalyzer analyzer) {
         this.analyzer = analyzer;
+        invalidate();
     }
 
     /**
@@ -70,12 +76,54 @@ public class MarkdownFilter implements TextFilter {
      */
     public void setPreClass(@Nullable String preClass) {
         this.preClass = preClass;
+        invalidate();
     }
 
     @Override
     public CharSequence apply(CharSequence text) {
-        Node document = createParserBuilder().build().parse(text.toString());
-        return createHtmlRendererBuilder().build().render(document);
+        Converter c = converter;
+        if (c == null) {
+            c = createConverter();
+        }
+
+        FilterEvent event = FilterEvent.start(getClass(), "apply", text.length());
+
+        FilterEvent parseEvent = FilterEvent.start(getClass(), "parse", text.length());
+        Node document = c.parser.parse(text.toString());
+        parseEvent.finish(-1);
+
+        FilterEvent renderEvent = FilterEvent.start(getClass(), "render", -1);
+        String result = c.renderer.render(document);
+        renderEvent.finish(result.length());
+
+        event.finish(result.length());
+        return result;
+    }
+
+    /**
+     * Invalidates the parser and renderer, so they are created again on the next
+     * invocation. Subclasses must invoke this method whenever they change a configuration
+     * that is used by the parser or renderer.
+     *
+     * @since 2.9
+     */
+    protected synchronized void invalidate() {
+        converter = null;
+    }
+
+    /**
+     * Creates a new {@link Converter} for the current configuration, unless another
+     * thread has already done so.
+     *
+     * @return {@link Converter} to be used
+     */
+    private synchronized Converter createConverter() {
+        Converter c = converter;
+        if (c == null) {
+            c = new Converter(createParserBuilder().build(), createHtmlRendererBuilder().build());
+            converter = c;
+        }
+        return c;
     }
 
     /**
@@ -135,6 +183,20 @@ public class MarkdownFilter implements TextFilter {
         return new ArrayList<>();
     }
 
+    /**
+     * The commonmark {@link Parser} and {@link HtmlRenderer} of a configuration. Both
+     * are immutable and thread safe.
+     */
+    private static class Converter {
+        private final Parser parser;
+        private final HtmlRenderer renderer;
+
+        public Converter(Parser parser, HtmlRenderer renderer) {
+            this.parser = parser;
+            this.renderer = renderer;
+        }
+    }
+
     /**
      * An {@link AttributeProvider} that uses {@link LinkAnalyzer}.
      */
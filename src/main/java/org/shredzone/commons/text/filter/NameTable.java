@@ -0,0 +1,225 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An immutable table of names, like HTML tags or attributes. Each name is mapped to a
+ * small integer id.
+ * <p>
+ * Names are looked up case-insensitively, directly from a region of a
+ * {@link CharSequence}. Lookups do not allocate any objects. The table is usually a
+ * perfect hash table, so every lookup needs to compare at most one name. If no perfect
+ * hash can be found within a few attempts, collisions are resolved by linear probing.
+ *
+ * @author Richard "Shred" Körber
+ */
+final class NameTable {
+
+    private static final int MAX_SEEDS = 32;
+    private static final int MAX_GROWTH = 8;
+
+    private final String[] names;
+    private final int[] slots;
+    private final int mask;
+    private final int seed;
+    private final boolean perfect;
+
+    /**
+     * Creates a new {@link NameTable}.
+     *
+     * @param names
+     *            Names to be stored. The names are converted to lower case, and
+     *            duplicates are removed. The ids are assigned in iteration order.
+     */
+    NameTable(Collection<String> names) {
+        Set<String> lowerNames = new LinkedHashSet<>();
+        for (String name : names) {
+            lowerNames.add(toLowerCase(name));
+        }
+        this.names = lowerNames.toArray(new String[0]);
+
+        // Find a seed that maps every name to a slot of its own. If there is none,
+        // double the table size and try again. If the table would get too large, use
+        // linear probing instead.
+        int minCapacity = Integer.highestOneBit(Math.max(this.names.length, 1) * 2) * 2;
+        int capacity = minCapacity;
+        int trySeed = 0;
+        int[] trySlots;
+        while ((trySlots = distribute(this.names, capacity, trySeed)) == null) {
+            if (++trySeed == MAX_SEEDS) {
+                trySeed = 0;
+                capacity *= 2;
+                if (capacity > minCapacity * MAX_GROWTH) {
+                    break;
+                }
+            }
+        }
+
+        if (trySlots != null) {
+            this.slots = trySlots;
+            this.mask = capacity - 1;
+            this.seed = trySeed;
+            this.perfect = true;
+        } else {
+            this.slots = probe(this.names, minCapacity);
+            this.mask = minCapacity - 1;
+            this.seed = 0;
+            this.perfect = false;
+        }
+    }
+
+    /**
+     * Distributes the names to the slots of a table.
+     *
+     * @param names
+     *            Names to distribute
+     * @param capacity
+     *            Table size, must be a power of 2
+     * @param seed
+     *            Hash seed to be used
+     * @return Table of name ids + 1 (0 for empty slots), or {@code null} if two names
+     *         collided
+     */
+    @Nullable
+    private static int[] distribute(String[] names, int capacity, int seed) {
+        int[] slots = new int[capacity];
+        for (int id = 0; id < names.length; id++) {
+            String name = names[id];
+            int slot = hash(name, 0, name.length(), seed) & (capacity - 1);
+            if (slots[slot] != 0) {
+                return null;
+            }
+            slots[slot] = id + 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Distributes the names to the slots of a table, using linear probing on collision.
+     *
+     * @param names
+     *            Names to distribute
+     * @param capacity
+     *            Table size, must be a power of 2 and larger than the number of names
+     * @return Table of name ids + 1 (0 for empty slots)
+     */
+    private static int[] probe(String[] names, int capacity) {
+        int[] slots = new int[capacity];
+        for (int id = 0; id < names.length; id++) {
+            String name = names[id];
+            int slot = hash(name, 0, name.length(), 0) & (capacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = id + 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the number of names in this table.
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the lower case name with the given id.
+     *
+     * @param id
+     *            Name id
+     * @return Name
+     */
+    String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Looks up a name, ignoring the case.
+     *
+     * @param text
+     *            Text containing the name
+     * @param start
+     *            Start of the name in the text
+     * @param end
+     *            End of the name in the text (exclusive)
+     * @return Name id, or -1 if the name is not in this table
+     */
+    int lookup(CharSequence text, int start, int end) {
+        int slot = hash(text, start, end, seed) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            String name = names[entry - 1];
+            if (name.length() == end - start && equalsIgnoreCase(name, text, start)) {
+                return entry - 1;
+            }
+            if (perfect) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares a lower case name with a region of the text, ignoring the case.
+     */
+    private static boolean equalsIgnoreCase(String name, CharSequence text, int start) {
+        for (int ix = 0; ix < name.length(); ix++) {
+            if (name.charAt(ix) != Character.toLowerCase(text.charAt(start + ix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes a case-insensitive hash of a region of the text. The seed is mixed into
+     * every step, so names that collide for one seed are unlikely to collide for another.
+     */
+    private static int hash(CharSequence text, int start, int end, int seed) {
+        int multiplier = 0x01000193 + seed * 0x9E3779B8;   // always odd
+        int h = 0x811C9DC5 ^ seed;
+        for (int ix = start; ix < end; ix++) {
+            h = (h ^ Character.toLowerCase(text.charAt(ix))) * multiplier;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * Converts a name to lower case, independent of the current locale.
+     */
+    private static String toLowerCase(String name) {
+        char[] chars = name.toCharArray();
+        for (int ix = 0; ix < chars.length; ix++) {
+            chars[ix] = Character.toLowerCase(chars[ix]);
+        }
+        return new String(chars);
+    }
+
+}
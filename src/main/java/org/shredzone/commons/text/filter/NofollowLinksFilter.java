@@ -19,31 +19,192 @@
  */
 package org.shredzone.commons.text.filter;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
-import org.shredzone.commons.text.TextFilter;
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that detects HTML hyperlinks, and adds a {@code rel="nofollow"} attribute.
  * This filter can be used to post-process HTML content created by a site visitor, so
  * web crawlers won't follow their links.
+ * <p>
+ * Only links with a http, https, ftp, mailto or file scheme are changed. The text is
+ * scanned in a single pass.
  *
  * @author Richard "Shred" Körber
  */
-public class NofollowLinksFilter implements TextFilter {
+public class NofollowLinksFilter extends AbstractStreamingFilter {
 
-    private static final Pattern HREF_PATTERN = Pattern.compile(
-            "(.*?)(<a[^>]+?href\\s*=\\s*[\"']?(?:https?|ftp|mailto|file):.+?)>",
-            Pattern.CASE_INSENSITIVE);
+    private static final String[] SCHEMES = {"https", "http", "ftp", "mailto", "file"};
+    private static final String NOFOLLOW = " rel=\"nofollow\"";
+    private static final CharScanner TAG_START = new CharScanner('<');
 
+    /**
+     * Creates a new {@link NofollowLinksFilter}.
+     */
+    public NofollowLinksFilter() {
+        super(1.0, 64);
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return TAG_START.scan(text).next(0) >= 0;
+    }
+
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
     @Override
-    public CharSequence apply(CharSequence text) {
-        Matcher m = HREF_PATTERN.matcher(text);
-        if (!m.matches()) {
+    CharSequence filter(CharSequence text) {
+        CharScanner.Scan tags = TAG_START.scan(text);
+        int first = findLink(text, tags, 0);
+        if (first < 0) {
             return text;
         }
-        return m.replaceAll("$1$2 rel=\"nofollow\">");
+
+        StringBuilder sb = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            replace(text, tags, first, sb);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
+        return sb;
+    }
+
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        CharScanner.Scan tags = TAG_START.scan(text);
+        int first = findLink(text, tags, 0);
+        if (first < 0) {
+            out.append(text);
+            return;
+        }
+        replace(text, tags, first, out);
+    }
+
+    /**
+     * Adds the nofollow attribute to all links in the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param tags
+     *            {@link CharScanner.Scan} that finds the '&lt;' of the text
+     * @param first
+     *            Position of the '&gt;' of the first link tag
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    private void replace(CharSequence text, CharScanner.Scan tags, int first, Appendable out)
+                throws IOException {
+        int lastEnd = 0;
+        int pos = first;
+
+        do {
+            // Empty element shorthand, insert the attribute before the '/'
+            int insert = text.charAt(pos - 1) == '/' ? pos - 1 : pos;
+            out.append(text, lastEnd, insert).append(NOFOLLOW);
+            lastEnd = insert;
+            pos = findLink(text, tags, pos + 1);
+        } while (pos >= 0);
+
+        out.append(text, lastEnd, text.length());
+    }
+
+    /**
+     * Finds the next link tag.
+     *
+     * @param text
+     *            Text to be scanned
+     * @param tags
+     *            {@link CharScanner.Scan} that finds the '&lt;' of the text
+     * @param from
+     *            Start position
+     * @return Position of the closing '&gt;' of the next link tag with an external
+     *         link, or -1 if there is none
+     */
+    private static int findLink(CharSequence text, CharScanner.Scan tags, int from) {
+        int len = text.length();
+        int pos = from;
+
+        while (pos < len) {
+            int start = tags.next(pos);
+            if (start < 0 || start + 2 >= len) {
+                return -1;
+            }
+
+            char ch = text.charAt(start + 1);
+            if ((ch != 'a' && ch != 'A') || !Character.isWhitespace(text.charAt(start + 2))) {
+                pos = start + 1;
+                continue;
+            }
+
+            int end = CharSequences.indexOf(text, '>', start + 3);
+            if (end < 0) {
+                // There is no '>' left, so there cannot be any more tags
+                return -1;
+            }
+
+            if (hasExternalHref(text, start + 3, end)) {
+                return end;
+            }
+
+            pos = end + 1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Checks if the given tag attributes contain a href with an external link.
+     *
+     * @param text
+     *            Text to be scanned
+     * @param start
+     *            Start of the tag attributes
+     * @param end
+     *            End of the tag attributes, which is the position of the '&gt;'
+     * @return {@code true} if there is an external href
+     */
+    private static boolean hasExternalHref(CharSequence text, int start, int end) {
+        for (int ix = start; ix + 4 <= end; ix++) {
+            if (!CharSequences.regionMatches(text, ix, "href", true)) {
+                continue;
+            }
+
+            int pos = CharSequences.skipWhitespaces(text, ix + 4, end);
+            if (pos >= end || text.charAt(pos) != '=') {
+                continue;
+            }
+
+            pos = CharSequences.skipWhitespaces(text, pos + 1, end);
+            if (pos < end && (text.charAt(pos) == '"' || text.charAt(pos) == '\'')) {
+                pos++;
+            }
+
+            for (String scheme : SCHEMES) {
+                int colon = pos + scheme.length();
+                if (colon + 1 < end
+                            && CharSequences.regionMatches(text, pos, scheme, true)
+                            && text.charAt(colon) == ':') {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
 }
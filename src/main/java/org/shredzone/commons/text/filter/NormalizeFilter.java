@@ -19,33 +19,92 @@
  */
 package org.shredzone.commons.text.filter;
 
-import org.shredzone.commons.text.TextFilter;
+import java.io.IOException;
+
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that normalizes EOL markers. CR and CRLF are converted to LF.
  *
  * @author Richard "Shred" Körber
  */
-public class NormalizeFilter implements TextFilter {
+public class NormalizeFilter extends AbstractStreamingFilter {
+
+    private static final CharScanner CR = new CharScanner('\r');
 
+    /**
+     * Creates a new {@link NormalizeFilter}.
+     */
+    public NormalizeFilter() {
+        super(1.0, 0);
+    }
+
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
     @Override
-    public CharSequence apply(CharSequence text) {
+    CharSequence filter(CharSequence text) {
+        int first = CR.scan(text).next(0);
+        if (first < 0) {
+            return text;
+        }
+
         StringBuilder sb = toStringBuilder(text);
 
-        // Benchmark says this is faster than replaceAll
+        // Compact the buffer in a single pass, the write index never passes the read index
         int max = sb.length();
-        for (int ix = 0; ix < max; ix++) {
-            if (sb.charAt(ix) == '\r') {
-                if ((ix + 1) < max && sb.charAt(ix + 1) == '\n') {
-                    sb.deleteCharAt(ix);
-                    max--;
-                } else {
-                    sb.setCharAt(ix, '\n');
+        int write = first;
+        for (int read = first; read < max; read++) {
+            char ch = sb.charAt(read);
+            if (ch == '\r') {
+                ch = '\n';
+                if ((read + 1) < max && sb.charAt(read + 1) == '\n') {
+                    read++;
                 }
             }
+            sb.setCharAt(write++, ch);
         }
+        sb.setLength(write);
 
         return sb;
     }
 
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        CharScanner.Scan scan = CR.scan(text);
+        int max = text.length();
+        int start = 0;
+        int ix;
+        while ((ix = scan.next(start)) >= 0) {
+            out.append(text, start, ix).append('\n');
+            if ((ix + 1) < max && text.charAt(ix + 1) == '\n') {
+                ix++;
+            }
+            start = ix + 1;
+        }
+        out.append(text, start, max);
+    }
+
+    @Override
+    public boolean isInPlace() {
+        return true;
+    }
+
+    @Override
+    public boolean mayModify(CharSequence text) {
+        return CR.scan(text).next(0) >= 0;
+    }
+
 }
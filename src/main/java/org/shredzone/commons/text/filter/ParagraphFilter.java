@@ -19,22 +19,34 @@
  */
 package org.shredzone.commons.text.filter;
 
-import org.shredzone.commons.text.TextFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that detects paragraphs and surrounds them with a HTML {@code &lt;p>}
  * container. Paragraphs are separated by empty lines. Additionally, single EOLs can be
- * replaced with {@code &lt;br />} tags.
+ * replaced with {@code &lt;br />} tags. Trailing EOLs are removed.
  * <p>
  * This filter expects a normalized text (only LF is accepted as EOL marker, see
  * {@link NormalizeFilter}).
  *
  * @author Richard "Shred" Körber
  */
-public class ParagraphFilter implements TextFilter {
+public class ParagraphFilter extends AbstractStreamingFilter {
+
+    private static final CharScanner LF = new CharScanner('\n');
 
     private boolean foldLines = true;
 
+    /**
+     * Creates a new {@link ParagraphFilter}.
+     */
+    public ParagraphFilter() {
+        super(1.1, 7);
+    }
+
     /**
      * Also fold single EOL marker.
      *
@@ -46,39 +58,62 @@ public class ParagraphFilter implements TextFilter {
         this.foldLines = foldLines;
     }
 
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
     @Override
-    public CharSequence apply(CharSequence text) {
-        StringBuilder sb = toStringBuilder(text);
+    CharSequence filter(CharSequence text) {
+        StringBuilder sb = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            filter(text, sb);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
+        return sb;
+    }
 
-        sb.insert(0, "<p>").append("</p>");
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        out.append("<p>");
 
-        int max = sb.length() - 3 - 4;
-        int ix = 3;
+        CharScanner.Scan scan = LF.scan(text);
+        int max = text.length();
+        while (max > 0 && text.charAt(max - 1) == '\n') {
+            max--;
+        }
+        int start = 0;
+        int ix = 0;
 
-        while (ix < max) {
-            if (sb.charAt(ix) == '\n') {
-                int lineEnd = ix + 1;
-                while (lineEnd < max && sb.charAt(lineEnd) == '\n') {
-                    lineEnd++;
-                }
+        while ((ix = scan.next(ix)) >= 0 && ix < max) {
+            int lineEnd = ix + 1;
+            while (lineEnd < max && text.charAt(lineEnd) == '\n') {
+                lineEnd++;
+            }
 
-                if (lineEnd > ix + 1) {
-                    sb.replace(ix, lineEnd, "</p><p>");
-                    max += 7 - (lineEnd - ix);
-                    ix += 7;
-                } else if (foldLines) {
-                    sb.replace(ix, lineEnd, "<br />");
-                    max += 6 - (lineEnd - ix);
-                    ix += 6;
-                } else {
-                    ix++;
-                }
-            } else {
-                ix++;
+            if (lineEnd > ix + 1) {
+                out.append(text, start, ix).append("</p><p>");
+                start = lineEnd;
+            } else if (foldLines) {
+                out.append(text, start, ix).append("<br />");
+                start = lineEnd;
             }
+            ix = lineEnd;
         }
 
-        return sb;
+        out.append(text, start, max).append("</p>");
     }
 
 }
@@ -19,18 +19,12 @@
  */
 package org.shredzone.commons.text.filter;
 
-import static java.util.stream.Collectors.toSet;
-
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
-import org.shredzone.commons.text.TextFilter;
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that simplifies a HTML text. Only a given set of HTML tags (and attributes)
@@ -38,19 +32,44 @@ import org.shredzone.commons.text.TextFilter;
  * <p>
  * This filter can be used to allow a site visitor to enter marked-up text, but remove
  * everything that might be harmful or induce Cross Site Scripting.
+ * <p>
+ * The text is processed by a tokenizer in a single pass. Tag and attribute names are
+ * looked up case-insensitively, and are always written in lower case.
+ * <p>
+ * The accepted tags are either configured by {@link #addAcceptedTag(String, String...)},
+ * or by passing a shared {@link HtmlPolicy} to the constructor.
  *
  * @author Richard "Shred" Körber
  */
-public class SimplifyHtmlFilter implements TextFilter {
+public class SimplifyHtmlFilter extends AbstractStreamingFilter {
 
-    private static final Pattern TAG_PATTERN = Pattern.compile("<[^>]+(>|$)", Pattern.DOTALL);
-    private static final Pattern TAG_OPEN = Pattern.compile("<(\\w+)\\s*(.*?)\\s*(/?)>");
-    private static final Pattern TAG_CLOSE = Pattern.compile("</(\\w+)\\s*>");
+    private static final CharScanner TAG_START = new CharScanner('<');
+
+    private @Nullable HtmlPolicy.Builder builder;
+    private volatile @Nullable HtmlPolicy policy;
+
+    /**
+     * Creates a new {@link SimplifyHtmlFilter} that does not accept any tags yet.
+     */
+    public SimplifyHtmlFilter() {
+        this(HtmlPolicy.empty());
+    }
 
-    private final Map<String, Set<String>> acceptedTags = new HashMap<>();
+    /**
+     * Creates a new {@link SimplifyHtmlFilter} that uses the given {@link HtmlPolicy}.
+     * The policy can be shared by many filters.
+     *
+     * @param policy
+     *            {@link HtmlPolicy} to be used
+     * @since 2.9
+     */
+    public SimplifyHtmlFilter(HtmlPolicy policy) {
+        super(1.1, 0);
+        this.policy = Objects.requireNonNull(policy);
+    }
 
     /**
-     * Adds a tag that is accepted by this filter, with all its attributes.
+     * Adds a tag that is accepted by this filter, without any attributes.
      *
      * @param tag
      *            HTML tag that is accepted (without angle brackets, e.g. "strong")
@@ -67,164 +86,306 @@ public class SimplifyHtmlFilter implements TextFilter {
      * @param attributes
      *            an array of accepted attributes (e.g. "src", "alt")
      */
-    public void addAcceptedTag(String tag, String... attributes) {
-        Objects.requireNonNull(tag);
-
-        if (attributes == null || attributes.length == 0) {
-            acceptedTags.put(tag.toLowerCase(), null);
-            return;
+    public synchronized void addAcceptedTag(String tag, String... attributes) {
+        HtmlPolicy.Builder b = builder;
+        if (b == null) {
+            // The shared policy is only copied when this filter is about to change it.
+            // If there is no builder yet, the policy is always set.
+            b = Objects.requireNonNull(policy).toBuilder();
+            builder = b;
         }
+        b.acceptTag(tag, attributes);
+        policy = null;
+    }
 
-        Set<String> attributeSet = Arrays.stream(attributes)
-                .map(String::toLowerCase)
-                .collect(toSet());
-
-        acceptedTags.put(tag.toLowerCase(), attributeSet);
+    /**
+     * Returns the {@link HtmlPolicy} that is currently used by this filter. It can be
+     * passed to other {@link SimplifyHtmlFilter} instances.
+     *
+     * @since 2.9
+     */
+    public HtmlPolicy getPolicy() {
+        HtmlPolicy result = policy;
+        if (result == null) {
+            synchronized (this) {
+                result = policy;
+                if (result == null) {
+                    result = Objects.requireNonNull(builder).build();
+                    policy = result;
+                }
+            }
+        }
+        return result;
     }
 
     @Override
-    public CharSequence apply(CharSequence text) {
-        StringBuffer sb = new StringBuffer(text.length() * 11 / 10);
+    public boolean mayModify(CharSequence text) {
+        return TAG_START.scan(text).next(0) >= 0;
+    }
 
-        Matcher m = TAG_PATTERN.matcher(text);
-        while (m.find()) {
-            m.appendReplacement(sb, processTag(m.group(0)));
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
+    @Override
+    CharSequence filter(CharSequence text) {
+        CharScanner.Scan tags = TAG_START.scan(text);
+        int first = tags.next(0);
+        if (first < 0) {
+            return text;
         }
-        m.appendTail(sb);
 
+        StringBuilder sb = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            process(text, tags, first, sb);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
         return sb;
     }
 
     /**
-     * Processes a tag that was spotted.
+     * Filters the text, and writes the result to the {@link Appendable}.
      *
      * @param text
-     *            Tag (complete tag including the angle brackets)
-     * @return Cleaned up tag, or empty string if the tag was not accepted
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
      */
-    private String processTag(CharSequence text) {
-        if (text.charAt(1) != '/') {
-            // Opening tag or empty element shorthand
-            Matcher m1 = TAG_OPEN.matcher(text);
-            if (m1.matches()) {
-                String tag = m1.group(1).toLowerCase();
-                String attr = m1.group(2);
-                String closing = m1.group(3);
-                if (acceptedTags.containsKey(tag)) {
-                    StringBuilder result = new StringBuilder();
-                    result.append('<').append(tag);
-                    processAttributes(attr, result, acceptedTags.get(tag));
-                    if ("/".equals(closing)) {
-                        result.append(" /");
-                    }
-                    result.append('>');
-                    return result.toString();
-                }
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        CharScanner.Scan tags = TAG_START.scan(text);
+        process(text, tags, tags.next(0), out);
+    }
+
+    /**
+     * Tokenizes the text, and writes all text and accepted tags to the output.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param tags
+     *            {@link CharScanner.Scan} that finds the '&lt;' of the text
+     * @param first
+     *            Position of the first '&lt;', or -1 if there is none
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    private void process(CharSequence text, CharScanner.Scan tags, int first, Appendable out)
+                throws IOException {
+        HtmlPolicy accepted = getPolicy();
+        int len = text.length();
+        int last = 0;
+        int pos = first;
+
+        while (pos >= 0 && pos + 1 < len) {
+            if (text.charAt(pos + 1) == '>') {
+                // "<>" is not a tag
+                pos = tags.next(pos + 1);
+                continue;
             }
 
-        } else {
-            // Closing tag
-            Matcher m2 = TAG_CLOSE.matcher(text);
-            if (m2.matches()) {
-                String tag = m2.group(1).toLowerCase();
-                if (acceptedTags.containsKey(tag)) {
-                    return "</" + tag + ">";
-                }
+            out.append(text, last, pos);
+
+            int end = CharSequences.indexOf(text, '>', pos + 1);
+            if (end < 0) {
+                // Incomplete tags at the end are removed
+                last = len;
+                break;
+            }
+
+            if (text.charAt(pos + 1) == '/') {
+                processClosingTag(text, pos, end, accepted, out);
+            } else {
+                processOpeningTag(text, pos, end, accepted, out);
             }
+
+            last = end + 1;
+            pos = tags.next(last);
         }
 
-        return "";
+        out.append(text, last, len);
     }
 
     /**
-     * Processes an attribute string and builds clean attributes if accepted.
+     * Processes an opening tag or empty element shorthand.
      *
-     * @param attr
-     *            Raw attribute string
-     * @param result
-     *            StringBuilder where to append clean attributes to
+     * @param text
+     *            Text containing the tag
+     * @param start
+     *            Position of the opening '&lt;'
+     * @param end
+     *            Position of the closing '&gt;'
      * @param accepted
-     *            Set of accepted attributes, may be empty or {@code null} if any
-     *            attribute is accepted
+     *            {@link HtmlPolicy} to be used
+     * @param out
+     *            {@link Appendable} to write the cleaned up tag to
      */
-    private void processAttributes(String attr, StringBuilder result, @Nullable Set<String> accepted) {
-        // If we accept no attributes, we will not change the result anyways.
-        if (accepted == null || accepted.isEmpty()) {
+    private static void processOpeningTag(CharSequence text, int start, int end,
+                HtmlPolicy accepted, Appendable out) throws IOException {
+        int nameEnd = skipWordChars(text, start + 1, end);
+        if (nameEnd == start + 1) {
             return;
         }
 
-        int pos = 0;
-        int max = attr.length();
-
-        while (pos < max) {
-            // Attribute name
-            StringBuilder attrName = new StringBuilder(attr.length() * 11 / 10);
-            StringBuilder attrValue = null;
+        int tag = accepted.tags().lookup(text, start + 1, nameEnd);
+        if (tag < 0) {
+            return;
+        }
 
-            while (pos < max) {
-                char ch = attr.charAt(pos);
-                if (!Character.isLetterOrDigit(ch)) {
-                    break;
-                }
-                attrName.append(ch);
-                pos++;
-            }
+        int attrEnd = end;
+        boolean empty = false;
+        if (attrEnd > nameEnd && text.charAt(attrEnd - 1) == '/') {
+            empty = true;
+            attrEnd--;
+        }
 
-            // Skip Whitespaces
-            while (pos < max && Character.isWhitespace(attr.charAt(pos))) {
-                pos++;
-            }
+        out.append('<').append(accepted.tags().name(tag));
+        NameTable attributes = accepted.attributes(tag);
+        if (attributes != null) {
+            processAttributes(text, nameEnd, attrEnd, attributes, out);
+        }
+        if (empty) {
+            out.append(" /");
+        }
+        out.append('>');
+    }
 
-            if (pos < max && attr.charAt(pos) == '=') {
-                attrValue = new StringBuilder();
+    /**
+     * Processes a closing tag.
+     *
+     * @param text
+     *            Text containing the tag
+     * @param start
+     *            Position of the opening '&lt;'
+     * @param end
+     *            Position of the closing '&gt;'
+     * @param accepted
+     *            {@link HtmlPolicy} to be used
+     * @param out
+     *            {@link Appendable} to write the cleaned up tag to
+     */
+    private static void processClosingTag(CharSequence text, int start, int end,
+                HtmlPolicy accepted, Appendable out) throws IOException {
+        int nameEnd = skipWordChars(text, start + 2, end);
+        if (nameEnd == start + 2
+                    || CharSequences.skipWhitespaces(text, nameEnd, end) != end) {
+            return;
+        }
 
-                // Attribute with value
-                pos++;
+        int tag = accepted.tags().lookup(text, start + 2, nameEnd);
+        if (tag >= 0) {
+            out.append("</").append(accepted.tags().name(tag)).append('>');
+        }
+    }
 
-                // Skip Whitespaces
-                while (pos < max && Character.isWhitespace(attr.charAt(pos))) {
-                    pos++;
-                }
+    /**
+     * Processes the attributes of a tag, and writes clean attributes if accepted.
+     *
+     * @param text
+     *            Text containing the attributes
+     * @param start
+     *            Start of the attributes
+     * @param end
+     *            End of the attributes (exclusive)
+     * @param accepted
+     *            {@link NameTable} of accepted attributes
+     * @param out
+     *            {@link Appendable} where to append clean attributes to
+     */
+    private static void processAttributes(CharSequence text, int start, int end,
+                NameTable accepted, Appendable out) throws IOException {
+        int pos = CharSequences.skipWhitespaces(text, start, end);
 
-                if (pos < max) {
-                    char quote = attr.charAt(pos);
-                    if (quote == '"' || quote == '\'') {
-                        pos++;  // skip opening quote
+        while (pos < end) {
+            // Attribute name
+            int nameStart = pos;
+            while (pos < end && Character.isLetterOrDigit(text.charAt(pos))) {
+                pos++;
+            }
+            int nameEnd = pos;
 
-                        while (pos < max && attr.charAt(pos) != quote) {
-                            attrValue.append(attr.charAt(pos));
-                            pos++;
-                        }
+            pos = CharSequences.skipWhitespaces(text, pos, end);
 
-                        pos++;  // skip closing quote
+            int valueStart = -1;
+            int valueEnd = -1;
+            if (pos < end && text.charAt(pos) == '=') {
+                // Attribute with value
+                pos = CharSequences.skipWhitespaces(text, pos + 1, end);
 
-                    } else {
-                        // Attributes without quotes, just copy to the end
-                        while (pos < max && !Character.isWhitespace(attr.charAt(pos))) {
-                            attrValue.append(attr.charAt(pos));
-                            pos++;
-                        }
+                if (pos < end && (text.charAt(pos) == '"' || text.charAt(pos) == '\'')) {
+                    char quote = text.charAt(pos);
+                    valueStart = ++pos;
+                    while (pos < end && text.charAt(pos) != quote) {
+                        pos++;
+                    }
+                    valueEnd = pos;
+                    pos = Math.min(pos + 1, end);   // skip closing quote
+                } else {
+                    // Attributes without quotes, just copy to the next whitespace
+                    valueStart = pos;
+                    while (pos < end && !Character.isWhitespace(text.charAt(pos))) {
+                        pos++;
                     }
+                    valueEnd = pos;
                 }
 
-                // Skip trailing whitespaces
-                while (pos < max && Character.isWhitespace(attr.charAt(pos))) {
-                    pos++;
-                }
+                pos = CharSequences.skipWhitespaces(text, pos, end);
+
+            } else if (nameStart == nameEnd) {
+                // Neither a name nor a value, skip the unexpected character
+                pos = CharSequences.skipWhitespaces(text, pos + 1, end);
+                continue;
             }
 
-            if (accepted.contains(attrName.toString().toLowerCase())) {
-                result.append(' ').append(attrName).append('=');
-                if (attrValue != null) {
-                    result.append('"');
+            int attr = accepted.lookup(text, nameStart, nameEnd);
+            if (attr >= 0) {
+                String name = accepted.name(attr);
+                out.append(' ').append(name).append("=\"");
+                if (valueStart >= 0) {
                     // There should never be plain quotes in an attribute value!
-                    result.append(attrValue.toString().replace("\"", "&quot;"));
-                    result.append('"');
+                    appendValue(text, valueStart, valueEnd, out);
                 } else {
-                    result.append('"').append(attrName).append('"');
+                    out.append(name);
                 }
+                out.append('"');
+            }
+        }
+    }
+
+    /**
+     * Appends an attribute value, with all plain quotes escaped.
+     */
+    private static void appendValue(CharSequence text, int start, int end, Appendable out)
+                throws IOException {
+        int last = start;
+        for (int ix = start; ix < end; ix++) {
+            if (text.charAt(ix) == '"') {
+                out.append(text, last, ix).append("&quot;");
+                last = ix + 1;
+            }
+        }
+        out.append(text, last, end);
+    }
+
+    /**
+     * Returns the position of the first character that is not a word character
+     * ([a-zA-Z_0-9]).
+     */
+    private static int skipWordChars(CharSequence text, int from, int end) {
+        int pos = from;
+        while (pos < end) {
+            char ch = text.charAt(pos);
+            if (!((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')
+                        || (ch >= '0' && ch <= '9') || ch == '_')) {
+                break;
             }
+            pos++;
         }
+        return pos;
     }
 
 }
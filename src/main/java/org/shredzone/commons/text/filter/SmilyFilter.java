@@ -19,36 +19,46 @@
  */
 package org.shredzone.commons.text.filter;
 
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.joining;
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Properties;
+import java.util.TreeMap;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
-import org.shredzone.commons.text.TextFilter;
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that detects smily sequences, and replaces them with an image. The filter
  * tries to find the best match by the string length of the smily code, so it can safely
  * distinguish between smilies like ":-)" and ":-))".
+ * <p>
+ * The smily codes are compiled into a trie. The text is scanned in a single pass, and
+ * only characters that start a smily code are looked up in the trie, so the filter
+ * performance does not depend on the number of smilies.
+ * <p>
+ * The trie is compiled once on the first invocation after the smilies have been changed.
+ * To load many smilies at once, use {@link #addSmilies(Map)} or
+ * {@link #addSmilies(Properties)}. After {@link #freeze()} was invoked, the configuration
+ * cannot be changed any more, and the filter can safely be shared between threads.
  *
  * @author Richard "Shred" Körber
  */
-public class SmilyFilter implements TextFilter {
+public class SmilyFilter extends AbstractStreamingFilter {
 
-    private String baseUrl = "";
+    private volatile String baseUrl = "";
     private final Map<String, String> smilyMap = new HashMap<>();
-    private @Nullable Pattern smilyPattern;
+    private volatile @Nullable SmilyTrie smilyTrie;
+    private boolean frozen = false;
 
     /**
      * Creates a new {@link SmilyFilter}.
      */
     public SmilyFilter() {
-        updatePattern();
+        super(1.0, 64);
     }
 
     /**
@@ -59,9 +69,42 @@ public class SmilyFilter implements TextFilter {
      * @param image
      *            Image file name to be shown instead
      */
-    public void addSmily(String smily, String image) {
-        smilyMap.put(Objects.requireNonNull(smily), Objects.requireNonNull(image));
-        updatePattern();
+    public synchronized void addSmily(String smily, String image) {
+        checkNotFrozen();
+        if (smily.isEmpty()) {
+            throw new IllegalArgumentException("smily code must not be empty");
+        }
+        smilyMap.put(smily, Objects.requireNonNull(image));
+        smilyTrie = null;
+    }
+
+    /**
+     * Adds a set of smilies to be detected.
+     *
+     * @param smilies
+     *            Map of smily codes to detect, and the image file names to be shown
+     *            instead
+     * @since 2.9
+     */
+    public synchronized void addSmilies(Map<String, String> smilies) {
+        smilies.forEach(this::addSmily);
+    }
+
+    /**
+     * Adds a set of smilies to be detected. The property keys are the smily codes, and
+     * the property values are the image file names.
+     * <p>
+     * Note that ':', '=' and whitespaces must be escaped in the keys of a properties
+     * file, e.g. {@code \:-)=happy.png}.
+     *
+     * @param smilies
+     *            {@link Properties} of smily codes and image file names
+     * @since 2.9
+     */
+    public synchronized void addSmilies(Properties smilies) {
+        for (String smily : smilies.stringPropertyNames()) {
+            addSmily(smily, smilies.getProperty(smily));
+        }
     }
 
     /**
@@ -70,76 +113,288 @@ public class SmilyFilter implements TextFilter {
      * @param url
      *            Base url (e.g. "/img/smiles"), defaults to the current directory
      */
-    public void setBaseUrl(String url) {
-        this.baseUrl = Objects.requireNonNull(url);
-        if (baseUrl.length() > 0 && !baseUrl.endsWith("/")) {
-            baseUrl += "/";
+    public synchronized void setBaseUrl(String url) {
+        checkNotFrozen();
+        String newUrl = Objects.requireNonNull(url);
+        if (newUrl.length() > 0 && !newUrl.endsWith("/")) {
+            newUrl += "/";
+        }
+        this.baseUrl = newUrl;
+    }
+
+    /**
+     * Compiles the smilies, and freezes the configuration. After that, no further
+     * smilies can be added, and the base url cannot be changed.
+     *
+     * @return itself
+     * @since 2.9
+     */
+    public synchronized SmilyFilter freeze() {
+        compile();
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Makes sure that the configuration is not frozen yet.
+     *
+     * @throws IllegalStateException
+     *             if the configuration is frozen
+     */
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("SmilyFilter is frozen");
         }
     }
 
     /**
-     * Updates the regular expression for smily detection.
+     * Returns the compiled smilies. They are compiled if necessary.
+     *
+     * @return {@link SmilyTrie} of the current smilies
      */
-    private void updatePattern() {
-        // We need to sort the smilys by their string length (descending), so the regex
-        // will match the longest smilys first (":-))" before ":-)").
-        String pattern = smilyMap.keySet().stream()
-                .sorted(comparing(String::length).reversed())
-                .map(Pattern::quote)
-                .collect(joining("|"));
-
-        smilyPattern = Pattern.compile(pattern, Pattern.DOTALL);
+    private SmilyTrie getTrie() {
+        SmilyTrie trie = smilyTrie;
+        return trie != null ? trie : compile();
     }
 
-    private String escapeHtml(String text) {
+    /**
+     * Compiles the current smilies, unless another thread has already done so.
+     *
+     * @return {@link SmilyTrie} of the current smilies
+     */
+    private synchronized SmilyTrie compile() {
+        SmilyTrie trie = smilyTrie;
+        if (trie == null) {
+            trie = new SmilyTrie(smilyMap);
+            smilyTrie = trie;
+        }
+        return trie;
+    }
+
+    private static String escapeHtml(String text) {
         return text.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
     }
 
     @Override
-    public CharSequence apply(CharSequence text) {
-        if (smilyPattern == null) {
+    public boolean mayModify(CharSequence text) {
+        return getTrie().mayMatch(text);
+    }
+
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
+    @Override
+    CharSequence filter(CharSequence text) {
+        SmilyTrie trie = getTrie();
+        int pos = trie.find(text, 0);
+        if (pos < 0) {
             return text;
         }
 
-        Matcher m = smilyPattern.matcher(text);
+        StringBuilder result = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            replace(text, trie, pos, result);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
+        return result;
+    }
 
-        StringBuilder result = null;
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        SmilyTrie trie = getTrie();
+        int pos = trie.find(text, 0);
+        if (pos < 0) {
+            out.append(text);
+            return;
+        }
+        replace(text, trie, pos, out);
+    }
+
+    /**
+     * Replaces all smilies in the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param trie
+     *            {@link SmilyTrie} to be used
+     * @param firstPos
+     *            Position of the first smily
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    private void replace(CharSequence text, SmilyTrie trie, int firstPos, Appendable out)
+                throws IOException {
+        String url = baseUrl;
         int lastEnd = 0;
+        int pos = firstPos;
 
-        m.reset();
-        while(m.find()) {
-            if (result == null) {
-                result = new StringBuilder();
-            }
+        do {
+            SmilyTrie.Node smily = Objects.requireNonNull(trie.match(text, pos));
+            out.append(text, lastEnd, pos);
 
-            result.append(text, lastEnd, m.start());
+            out.append("<img src=\"").append(url).append(smily.image).append('"');
+            // TODO: Add optional class/style and width/height attributes
+            out.append(" alt=\"").append(smily.alt).append('"');
+            out.append(" />");
 
-            String smily = m.group();
-            String smilyUrl = smilyMap.get(smily);
-            if (smilyUrl != null) {
-                result.append("<img src=\"").append(baseUrl).append(smilyUrl).append('"');
-                // TODO: Add optional class/style and width/height attributes
-                result.append(" alt=\"").append(escapeHtml(smily)).append('"');
-                result.append(" />");
+            lastEnd = pos + smily.depth;
+            pos = trie.find(text, lastEnd);
+        } while (pos >= 0);
 
-            } else {
-                // Append the smily code. Should never happen, as the regex is built from
-                // the map keys...
-                result.append(smily);
+        out.append(text, lastEnd, text.length());
+    }
+
+    /**
+     * An immutable trie of smily codes.
+     */
+    private static class SmilyTrie {
+        private final long[] firstChars = new long[1024];
+        private final @Nullable CharScanner firstCharScanner;
+        private final Node root;
+
+        /**
+         * Compiles a trie of the given smilies.
+         *
+         * @param smilies
+         *            Map of smily codes and their image file names
+         */
+        public SmilyTrie(Map<String, String> smilies) {
+            root = new Node(new TreeMap<>(smilies), 0);
+            for (char ch : root.keys) {
+                firstChars[ch >> 6] |= 1L << ch;
             }
+            firstCharScanner = root.keys.length > 0 ? new CharScanner(root.keys) : null;
+        }
 
-            lastEnd = m.end();
+        /**
+         * Quickly checks if the text contains a character that starts a smily code.
+         *
+         * @param text
+         *            Text to be scanned
+         * @return {@code true} if there may be a smily in the text
+         */
+        public boolean mayMatch(CharSequence text) {
+            return firstCharScanner != null && firstCharScanner.scan(text).next(0) >= 0;
         }
 
-        if (result == null) {
-            return text;
+        /**
+         * Finds the next smily in the text.
+         *
+         * @param text
+         *            Text to be scanned
+         * @param from
+         *            Start position
+         * @return Position of the next smily, or -1 if there is none
+         */
+        public int find(CharSequence text, int from) {
+            int len = text.length();
+            for (int ix = from; ix < len; ix++) {
+                char ch = text.charAt(ix);
+                if ((firstChars[ch >> 6] & (1L << ch)) != 0 && match(text, ix) != null) {
+                    return ix;
+                }
+            }
+            return -1;
         }
 
-        if (lastEnd < text.length()) {
-            result.append(text, lastEnd, text.length());
+        /**
+         * Finds the longest smily code at the given position.
+         *
+         * @param text
+         *            Text to be scanned
+         * @param pos
+         *            Position of the smily
+         * @return Trie {@link Node} of the longest matching smily code, or {@code null}
+         *         if there is no smily at this position
+         */
+        @Nullable
+        public Node match(CharSequence text, int pos) {
+            int len = text.length();
+            Node node = root;
+            Node match = null;
+            for (int ix = pos; ix < len; ix++) {
+                node = node.child(text.charAt(ix));
+                if (node == null) {
+                    break;
+                }
+                if (node.image != null) {
+                    match = node;
+                }
+            }
+            return match;
         }
 
-        return result;
+        /**
+         * A node of the trie.
+         */
+        private static class Node {
+            private final int depth;
+            private final char[] keys;
+            private final Node[] children;
+            private final @Nullable String image;
+            private final @Nullable String alt;
+
+            /**
+             * Creates a node.
+             *
+             * @param smilies
+             *            Sorted map of all smilies that share the prefix of this node
+             * @param depth
+             *            Depth of this node, which is also the length of the prefix
+             */
+            public Node(TreeMap<String, String> smilies, int depth) {
+                this.depth = depth;
+
+                TreeMap<Character, TreeMap<String, String>> branches = new TreeMap<>();
+                String nodeImage = null;
+                String nodeAlt = null;
+                for (Map.Entry<String, String> entry : smilies.entrySet()) {
+                    String code = entry.getKey();
+                    if (code.length() == depth) {
+                        nodeImage = entry.getValue();
+                        nodeAlt = escapeHtml(code);
+                    } else {
+                        branches.computeIfAbsent(code.charAt(depth), k -> new TreeMap<>())
+                                .put(code, entry.getValue());
+                    }
+                }
+                this.image = nodeImage;
+                this.alt = nodeAlt;
+
+                keys = new char[branches.size()];
+                children = new Node[branches.size()];
+                int ix = 0;
+                for (Map.Entry<Character, TreeMap<String, String>> entry : branches.entrySet()) {
+                    keys[ix] = entry.getKey();
+                    children[ix] = new Node(entry.getValue(), depth + 1);
+                    ix++;
+                }
+            }
+
+            /**
+             * Returns the child node for the given character, or {@code null} if there
+             * is none.
+             */
+            @Nullable
+            public Node child(char ch) {
+                int ix = Arrays.binarySearch(keys, ch);
+                return ix >= 0 ? children[ix] : null;
+            }
+        }
     }
 
 }
@@ -19,10 +19,12 @@
  */
 package org.shredzone.commons.text.filter;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 
-import org.shredzone.commons.text.TextFilter;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.shredzone.commons.text.utils.CharScanner;
 
 /**
  * A filter that strips HTML markup from a text.
@@ -37,37 +39,279 @@ import org.shredzone.commons.text.TextFilter;
  *
  * @author Richard "Shred" Körber
  */
-public class StripHtmlFilter implements TextFilter {
+public class StripHtmlFilter extends AbstractStreamingFilter {
 
     // Inline tags that do not need to be replaced by a whitespace
-    private static final Pattern INLINE_TAGS = Pattern.compile("code|em|strong|samp|" +
-            "kbd|var|cite|dfn|abbr|acronym|q|del|ins|bdo|b|i|u|tt|s|strike|big|small|" +
-            "sup|sub|span|img", Pattern.CASE_INSENSITIVE);
+    private static final NameTable INLINE_TAGS = new NameTable(Arrays.asList("code", "em",
+            "strong", "samp", "kbd", "var", "cite", "dfn", "abbr", "acronym", "q", "del",
+            "ins", "bdo", "b", "i", "u", "tt", "s", "strike", "big", "small", "sup", "sub",
+            "span", "img"));
 
-    private static final Pattern TAG_PATTERN = Pattern.compile("</?([a-zA-Z0-9]+)(?:\\\"[^\"]*\\\"|[^>])*>", Pattern.DOTALL);
+    private static final CharScanner TAG_START = new CharScanner('<');
+
+    /**
+     * Creates a new {@link StripHtmlFilter}.
+     */
+    public StripHtmlFilter() {
+        super(1.0, 0);
+    }
 
     @Override
-    public CharSequence apply(CharSequence text) {
-        StringBuffer sb = new StringBuffer();
+    public boolean mayModify(CharSequence text) {
+        // A trailing whitespace is always removed, even if there are no tags
+        int len = text.length();
+        return (len > 0 && Character.isWhitespace(text.charAt(len - 1)))
+                || TAG_START.scan(text).next(0) >= 0;
+    }
 
-        Matcher m = TAG_PATTERN.matcher(text);
-        while (m.find()) {
-            String tag = m.group(1);
+    /**
+     * Filters the text.
+     *
+     * @param text
+     *            Text to be filtered
+     * @return Filtered text
+     */
+    @Override
+    CharSequence filter(CharSequence text) {
+        StringBuilder sb = new StringBuilder(estimateOutputLength(text.length()));
+        try {
+            filter(text, sb);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
+        return sb;
+    }
 
-            boolean isInline = INLINE_TAGS.matcher(tag).matches();
-            if (!isInline && sb.length() > 0 && !Character.isWhitespace(sb.charAt(sb.length() - 1))) {
-                m.appendReplacement(sb, " ");
-            } else {
-                m.appendReplacement(sb, "");
+    /**
+     * Filters the text, and writes the result to the {@link Appendable}.
+     *
+     * @param text
+     *            Text to be filtered
+     * @param out
+     *            {@link Appendable} to write the result to
+     */
+    @Override
+    void filter(CharSequence text, Appendable out) throws IOException {
+        StrippedText result = new StrippedText(out);
+        TagScanner scanner = new TagScanner(text);
+        int len = text.length();
+        CharScanner.Scan tags = TAG_START.scan(text);
+        int lastEnd = 0;
+        int pos = tags.next(0);
+
+        while (pos >= 0) {
+            int nameStart = pos + 1;
+            if (nameStart < len && text.charAt(nameStart) == '/') {
+                nameStart++;
+            }
+            int nameEnd = nameStart;
+            while (nameEnd < len && isAlphanumeric(text.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd == nameStart) {
+                // Not a tag, just a plain '<'
+                pos = tags.next(pos + 1);
+                continue;
             }
+
+            int end = scanner.findTagEnd(nameEnd);
+            if (end < 0) {
+                // There is no '>' left, so there cannot be any more tags
+                break;
+            }
+
+            result.append(text, lastEnd, pos);
+
+            boolean isInline = INLINE_TAGS.lookup(text, nameStart, nameEnd) >= 0;
+            if (!isInline && !result.endsWithWhitespace()) {
+                result.append(" ", 0, 1);
+            }
+
+            lastEnd = end + 1;
+            pos = tags.next(lastEnd);
         }
-        m.appendTail(sb);
+        result.append(text, lastEnd, len);
+
+        // A trailing whitespace is never written
+    }
+
+    /**
+     * Checks if the character is an ASCII letter or digit.
+     */
+    private static boolean isAlphanumeric(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9');
+    }
 
-        if (sb.length() > 0 && Character.isWhitespace(sb.charAt(sb.length() - 1))) {
-            sb.deleteCharAt(sb.length() - 1);
+    /**
+     * Finds the end of tags. A '&gt;' inside a quoted attribute value does not end the
+     * tag. If a quote is not closed, or there is no '&gt;' after the closing quote, the
+     * scanner backtracks and takes the quote as plain character instead.
+     * <p>
+     * Backtracking is only necessary for broken markup. In that case, the end positions
+     * for all remaining quotes are computed once in a single backward pass, so even
+     * malicious input is processed in linear time.
+     */
+    private static class TagScanner {
+        private final CharSequence text;
+        private @Nullable int[] quotes;
+        private @Nullable int[] ends;
+
+        public TagScanner(CharSequence text) {
+            this.text = text;
         }
 
-        return sb;
+        /**
+         * Finds the end of a tag.
+         *
+         * @param from
+         *            Position after the tag name
+         * @return Position of the closing '&gt;', or -1 if there is no '&gt;' left in
+         *         the text
+         */
+        public int findTagEnd(int from) {
+            int len = text.length();
+            int firstQuote = -1;
+            int pos = from;
+
+            while (pos < len) {
+                char ch = text.charAt(pos);
+                if (ch == '>') {
+                    return pos;
+                }
+                if (ch == '"') {
+                    if (firstQuote < 0) {
+                        firstQuote = pos;
+                        if (ends != null) {
+                            return lookup(pos);
+                        }
+                    }
+                    pos = CharSequences.indexOf(text, '"', pos + 1);
+                    if (pos < 0) {
+                        break;
+                    }
+                }
+                pos++;
+            }
+
+            if (firstQuote < 0) {
+                // No quotes, so there is no '>' left at all
+                return -1;
+            }
+
+            return lookup(firstQuote);
+        }
+
+        /**
+         * Returns the end of a tag, when reaching the given quote outside of a quoted
+         * value.
+         *
+         * @param pos
+         *            Quote position
+         * @return Position of the closing '&gt;', or -1 if there is none
+         */
+        private int lookup(int pos) {
+            int ix = quotes != null ? Arrays.binarySearch(quotes, pos) : -1;
+            if (ix < 0) {
+                computeEnds(pos);
+                ix = 0;
+            }
+            return ends[ix];
+        }
+
+        /**
+         * Computes the tag ends for all quotes, starting from the given position.
+         * <p>
+         * For each quote i, {@code afterQuote} is the tag end when continuing after quote
+         * i, outside of a quoted value. It is the next '&gt;' if it comes before quote
+         * i+1, otherwise it is {@code ends[i+1]}. {@code ends[i]} is the tag end when
+         * reaching quote i outside of a quoted value. If quote i is closed by quote i+1,
+         * the scan continues after quote i+1. If that fails, quote i is taken as plain
+         * character, and the scan continues after quote i.
+         */
+        private void computeEnds(int from) {
+            int count = 0;
+            for (int pos = from; pos >= 0; pos = CharSequences.indexOf(text, '"', pos + 1)) {
+                count++;
+            }
+
+            int[] q = new int[count];
+            int ix = 0;
+            for (int pos = from; pos >= 0; pos = CharSequences.indexOf(text, '"', pos + 1)) {
+                q[ix++] = pos;
+            }
+
+            int[] e = new int[count];
+            int nextGt = -1;
+            int textPos = text.length() - 1;
+            int afterNext = -1;
+            for (ix = count - 1; ix >= 0; ix--) {
+                while (textPos > q[ix]) {
+                    if (text.charAt(textPos) == '>') {
+                        nextGt = textPos;
+                    }
+                    textPos--;
+                }
+
+                int afterQuote;
+                if (nextGt >= 0 && (ix == count - 1 || nextGt < q[ix + 1])) {
+                    afterQuote = nextGt;
+                } else {
+                    afterQuote = ix < count - 1 ? e[ix + 1] : -1;
+                }
+
+                e[ix] = afterNext >= 0 ? afterNext : afterQuote;
+                afterNext = afterQuote;
+            }
+
+            quotes = q;
+            ends = e;
+        }
+    }
+
+    /**
+     * Writes the stripped text to an {@link Appendable}. A trailing whitespace is held
+     * back until more text is appended, so it can be dropped at the end of the text.
+     */
+    private static class StrippedText {
+        private final Appendable out;
+        private boolean empty = true;
+        private char pending = 0;
+
+        public StrippedText(Appendable out) {
+            this.out = out;
+        }
+
+        /**
+         * Appends a part of the given text.
+         */
+        public void append(CharSequence text, int start, int end) throws IOException {
+            if (start == end) {
+                return;
+            }
+
+            if (pending != 0) {
+                out.append(pending);
+                pending = 0;
+            }
+
+            char last = text.charAt(end - 1);
+            if (Character.isWhitespace(last)) {
+                out.append(text, start, end - 1);
+                pending = last;
+            } else {
+                out.append(text, start, end);
+            }
+            empty = false;
+        }
+
+        /**
+         * Returns {@code true} if nothing was written yet, or the text written so far
+         * ends with a whitespace.
+         */
+        public boolean endsWithWhitespace() {
+            return empty || pending != 0;
+        }
     }
 
 }
@@ -20,6 +20,8 @@
 package org.shredzone.commons.text.filter;
 
 import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import org.eclipse.mylyn.wikitext.parser.Attributes;
@@ -27,23 +29,36 @@ import org.eclipse.mylyn.wikitext.parser.DocumentBuilder;
 import org.eclipse.mylyn.wikitext.parser.LinkAttributes;
 import org.eclipse.mylyn.wikitext.parser.MarkupParser;
 import org.eclipse.mylyn.wikitext.parser.builder.HtmlDocumentBuilder;
+import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
 import org.eclipse.mylyn.wikitext.textile.TextileLanguage;
 import org.shredzone.commons.text.LinkAnalyzer;
 import org.shredzone.commons.text.TextFilter;
 import org.shredzone.commons.text.utils.FastStringWriter;
+import org.shredzone.commons.text.utils.FilterEvent;
+import org.shredzone.commons.text.utils.OutputLengthEstimator;
 
 /**
  * A filter that converts Textile markup to HTML.
  * <p>
  * Currently, Mylyn WikiText Textile (formerly known as Textile-J) is used for conversion.
  * Future releases may come with an own, lightweight implementation.
+ * <p>
+ * Setting up a Textile language instance is expensive. For this reason, the language is
+ * configured only once, and used as template for a pool of language instances that are
+ * reused for the conversions.
  *
  * @see <a href="http://wiki.eclipse.org/Mylyn/Incubator/WikiText">Mylyn WikiText</a>
  * @author Richard "Shred" Körber
  */
 public class TextileFilter implements TextFilter {
 
+    private static final int DEFAULT_POOL_SIZE = 16;
+
     private @Nullable LinkAnalyzer analyzer;
+    private @Nullable MarkupLanguage template;
+    private volatile @Nullable BlockingQueue<MarkupLanguage> pool =
+            new ArrayBlockingQueue<>(DEFAULT_POOL_SIZE);
+    private final OutputLengthEstimator estimator = new OutputLengthEstimator(1.5, 0);
 
     /**
      * Sets a {@link LinkAnalyzer} to be used for converting links and image source URLs.
@@ -55,6 +70,35 @@ public class TextileFilter implements TextFilter {
         this.analyzer = analyzer;
     }
 
+    /**
+     * Sets the maximum number of Textile language instances that are kept for reuse.
+     *
+     * @param poolSize
+     *            Maximum number of pooled language instances, or 0 to create a new
+     *            instance for every conversion. Defaults to 16.
+     * @since 2.9
+     */
+    public void setPoolSize(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("poolSize must not be negative");
+        }
+        this.pool = poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null;
+    }
+
+    /**
+     * Creates a Textile-j {@link MarkupLanguage} to be used for parsing. It is invoked
+     * only once, and the result is cloned for further language instances.
+     * <p>
+     * Note that this method is Textile-j specific and might be removed in future
+     * versions.
+     *
+     * @return {@link MarkupLanguage} to be used for the markup parser
+     * @since 2.9
+     */
+    protected MarkupLanguage createMarkupLanguage() {
+        return new TextileLanguage();
+    }
+
     /**
      * Creates a Textile-j {@link DocumentBuilder} to be used for writing.
      * <p>
@@ -77,13 +121,54 @@ public class TextileFilter implements TextFilter {
 
     @Override
     public CharSequence apply(CharSequence text) {
-        FastStringWriter writer = new FastStringWriter(text.length() * 15 / 10);
+        FilterEvent event = FilterEvent.start(getClass(), "apply", text.length());
+        FastStringWriter writer = new FastStringWriter(estimator.estimate(text.length()));
 
-        MarkupParser parser = new MarkupParser(new TextileLanguage());
+        BlockingQueue<MarkupLanguage> languagePool = pool;
+        MarkupLanguage language = languagePool != null ? languagePool.poll() : null;
+        if (language == null) {
+            language = newMarkupLanguage();
+        }
+
+        MarkupParser parser = new MarkupParser(language);
         parser.setBuilder(createDocumentBuilder(writer));
-        parser.parse(text.toString());
 
-        return writer.toStringBuilder();
+        // The parser renders while parsing, so both phases are measured together
+        FilterEvent parseEvent = FilterEvent.start(getClass(), "parse", text.length());
+        try {
+            parser.parse(text.toString());
+        } catch (RuntimeException ex) {
+            // The language may be left in an undefined state, so it is dropped instead
+            // of being returned to the pool
+            throw ex;
+        }
+        parseEvent.finish(writer.toStringBuilder().length());
+
+        if (languagePool != null) {
+            languagePool.offer(language);
+        }
+
+        StringBuilder result = writer.toStringBuilder();
+        estimator.record(text.length(), result.length());
+        event.finish(result.length());
+        return result;
+    }
+
+    @Override
+    public int estimateOutputLength(int inputLength) {
+        return estimator.estimate(inputLength);
+    }
+
+    /**
+     * Creates a new {@link MarkupLanguage} instance by cloning the template.
+     *
+     * @return New {@link MarkupLanguage}
+     */
+    private synchronized MarkupLanguage newMarkupLanguage() {
+        if (template == null) {
+            template = createMarkupLanguage();
+        }
+        return template.clone();
     }
 
     /**
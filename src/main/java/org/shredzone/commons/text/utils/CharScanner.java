@@ -0,0 +1,119 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+/**
+ * Finds the trigger characters of a filter in a text, so the runs of characters that
+ * are of no interest to the filter can be skipped quickly.
+ * <p>
+ * This is the Java 8 version, which checks every character against a lookup table. On
+ * Java 11 and higher, it is replaced by a version that uses the intrinsic
+ * {@link String#indexOf(int, int)} of the JVM (see {@code src/main/java11}). Both
+ * versions must have the same public API.
+ * <p>
+ * A {@link CharScanner} is immutable and thread safe.
+ *
+ * @author Richard "Shred" Körber
+ */
+public final class CharScanner {
+
+    private final int single;
+    private final long mask;
+    private final boolean[] table;
+
+    /**
+     * Creates a new {@link CharScanner}.
+     *
+     * @param triggers
+     *            Characters to find
+     */
+    public CharScanner(char... triggers) {
+        if (triggers.length == 0) {
+            throw new IllegalArgumentException("no trigger characters");
+        }
+
+        long bits = 0L;
+        char max = 0;
+        for (char ch : triggers) {
+            if (ch < 64) {
+                bits |= 1L << ch;
+            }
+            max = (char) Math.max(max, ch);
+        }
+        mask = bits;
+        single = triggers.length == 1 ? triggers[0] : -1;
+        table = new boolean[max + 1];
+        for (char ch : triggers) {
+            table[ch] = true;
+        }
+    }
+
+    /**
+     * Starts scanning a text.
+     *
+     * @param text
+     *            Text to be scanned. It must not be changed while it is scanned.
+     * @return {@link Scan} of that text
+     */
+    public Scan scan(CharSequence text) {
+        return new Scan(text);
+    }
+
+    /**
+     * Scans a single text. It is not thread safe.
+     */
+    public final class Scan {
+        private final CharSequence text;
+
+        private Scan(CharSequence text) {
+            this.text = text;
+        }
+
+        /**
+         * Finds the next trigger character.
+         *
+         * @param from
+         *            Position to start from
+         * @return Position of the next trigger character, or -1 if there is none
+         */
+        public int next(int from) {
+            CharSequence text = this.text;
+            int len = text.length();
+            if (single >= 0) {
+                for (int ix = Math.max(from, 0); ix < len; ix++) {
+                    if (text.charAt(ix) == single) {
+                        return ix;
+                    }
+                }
+                return -1;
+            }
+            long bits = mask;
+            boolean[] tbl = table;
+            for (int ix = Math.max(from, 0); ix < len; ix++) {
+                char ch = text.charAt(ix);
+                if (ch < 64 ? (bits & (1L << ch)) != 0 : ch < tbl.length && tbl[ch]) {
+                    return ix;
+                }
+            }
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+/**
+ * Reports the execution of a filter to the JDK Flight Recorder.
+ * <p>
+ * This is the Java 8 version, which does nothing. On Java 11 and higher, it is replaced
+ * by a version that emits JFR events (see {@code src/main/java11}). Both versions must
+ * have the same public API.
+ *
+ * @author Richard "Shred" Körber
+ */
+public final class FilterEvent {
+
+    private static final FilterEvent NONE = new FilterEvent();
+
+    private FilterEvent() {
+        // use start()
+    }
+
+    /**
+     * Starts an event.
+     *
+     * @param filter
+     *            Filter class
+     * @param phase
+     *            Processing phase, e.g. "apply", "parse", "render"
+     * @param inputLength
+     *            Length of the input text
+     * @return {@link FilterEvent} to be finished
+     */
+    public static FilterEvent start(Class<?> filter, String phase, int inputLength) {
+        return NONE;
+    }
+
+    /**
+     * Starts an event of a filter that writes to an {@link Appendable}.
+     *
+     * @param filter
+     *            Filter class
+     * @param phase
+     *            Processing phase, e.g. "apply", "parse", "render"
+     * @param inputLength
+     *            Length of the input text
+     * @param out
+     *            {@link Appendable} the filter writes to
+     * @return {@link FilterEvent} to be finished with {@link #finish(Appendable)}
+     */
+    public static FilterEvent start(Class<?> filter, String phase, int inputLength, Appendable out) {
+        return NONE;
+    }
+
+    /**
+     * Finishes the event.
+     *
+     * @param outputLength
+     *            Length of the output text, or -1 if there is no output
+     */
+    public void finish(int outputLength) {
+        // does nothing on Java 8
+    }
+
+    /**
+     * Finishes the event of a filter that writes to an {@link Appendable}. The output
+     * length is only known if the {@link Appendable} is a {@link StringBuilder}.
+     *
+     * @param out
+     *            {@link Appendable} the filter has written to
+     */
+    public void finish(Appendable out) {
+        // does nothing on Java 8
+    }
+
+}
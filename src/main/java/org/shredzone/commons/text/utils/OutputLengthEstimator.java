@@ -0,0 +1,142 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+/**
+ * Estimates the output length of a filter, so the output buffer can be allocated with
+ * the right size, and does not need to grow.
+ * <p>
+ * The estimator starts with an initial expansion ratio, and adapts it to the ratios that
+ * are observed on the actual texts. The ratio is the average of the recent texts,
+ * weighted by their length, so a short text has little influence on the estimation of
+ * the next long texts. A single text may at most double the ratio.
+ * <p>
+ * Texts that are shorter than 64 characters are not used for tuning, as their ratio
+ * is mostly dominated by the constant overhead.
+ * <p>
+ * The estimator is thread safe. Concurrent updates may get lost, which is harmless as
+ * the ratio is just an estimation.
+ *
+ * @author Richard "Shred" Körber
+ * @since 2.9
+ */
+public final class OutputLengthEstimator {
+
+    private static final int SHIFT = 16;
+    private static final int ONE = 1 << SHIFT;
+    private static final int MAX_RATIO = 16 * ONE;
+    private static final int MIN_SAMPLE_LENGTH = 64;
+    private static final int WINDOW = 1 << 16;
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final int overhead;
+    private volatile int ratio;
+    private volatile int weight;
+
+    /**
+     * Creates a new {@link OutputLengthEstimator}.
+     *
+     * @param initialRatio
+     *            Expected ratio of the output length to the input length, until the
+     *            actual ratio has been observed
+     * @param overhead
+     *            Number of characters that are added to every text, independent of its
+     *            length
+     */
+    public OutputLengthEstimator(double initialRatio, int overhead) {
+        if (initialRatio < 0.0 || overhead < 0) {
+            throw new IllegalArgumentException("ratio and overhead must not be negative");
+        }
+        this.ratio = (int) Math.min(Math.round(initialRatio * ONE), MAX_RATIO);
+        this.overhead = overhead;
+    }
+
+    /**
+     * Estimates the output length.
+     *
+     * @param inputLength
+     *            Length of the input text
+     * @return Estimated length of the output text
+     */
+    public int estimate(int inputLength) {
+        // Round up, so the estimation is never too short for a recorded ratio
+        long length = (((long) inputLength * ratio + ONE - 1) >> SHIFT) + overhead;
+        return (int) Math.min(length, MAX_LENGTH);
+    }
+
+    /**
+     * Records the actual output length of a text, and adapts the ratio.
+     *
+     * @param inputLength
+     *            Length of the input text
+     * @param outputLength
+     *            Length of the output text, or -1 if it is unknown
+     */
+    public void record(int inputLength, int outputLength) {
+        if (inputLength < MIN_SAMPLE_LENGTH || outputLength < 0) {
+            return;
+        }
+
+        long scaled = (long) Math.max(outputLength - overhead, 0) << SHIFT;
+        long observed = (scaled + inputLength - 1) / inputLength;
+        int sample = (int) Math.min(observed, MAX_RATIO);
+        int current = ratio;
+        int currentWeight = weight;
+
+        // Average of the recent texts, weighted by their length, rounded up
+        long total = (long) currentWeight + inputLength;
+        long average = ((long) current * currentWeight + (long) sample * inputLength + total - 1) / total;
+
+        long limit = (long) current + Math.max(current, ONE);
+        ratio = (int) Math.min(Math.min(average, limit), MAX_RATIO);
+        weight = (int) Math.min(total, WINDOW);
+    }
+
+    /**
+     * Records the actual output length of a text that was written to an
+     * {@link Appendable}. The output length is only known if the {@link Appendable} is a
+     * {@link StringBuilder}.
+     *
+     * @param inputLength
+     *            Length of the input text
+     * @param out
+     *            {@link Appendable} the text was written to
+     * @param mark
+     *            Result of {@link #mark(Appendable)} before the text was written
+     */
+    public void record(int inputLength, Appendable out, int mark) {
+        if (mark >= 0) {
+            record(inputLength, ((StringBuilder) out).length() - mark);
+        }
+    }
+
+    /**
+     * Marks the current length of an {@link Appendable}, so the length of the text
+     * written to it can be recorded by {@link #record(int, Appendable, int)} later.
+     *
+     * @param out
+     *            {@link Appendable} the text will be written to
+     * @return Current length, or -1 if the length is unknown
+     */
+    public static int mark(Appendable out) {
+        return out instanceof StringBuilder ? ((StringBuilder) out).length() : -1;
+    }
+
+}
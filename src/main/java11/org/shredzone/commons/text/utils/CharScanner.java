@@ -0,0 +1,181 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+import java.util.Arrays;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Finds the trigger characters of a filter in a text, so the runs of characters that
+ * are of no interest to the filter can be skipped quickly.
+ * <p>
+ * This is the Java 11 version. {@link String} texts are scanned with
+ * {@link String#indexOf(int, int)}, and {@link StringBuilder} texts with
+ * {@link StringBuilder#indexOf(String, int)}. Both are intrinsics of the JVM that
+ * compare many characters at once. The position of every trigger character is
+ * remembered, so each trigger character is searched at most once per occurrence. Other
+ * texts are checked character by character against a lookup table.
+ * <p>
+ * A {@link CharScanner} is immutable and thread safe.
+ *
+ * @author Richard "Shred" Körber
+ */
+public final class CharScanner {
+
+    /**
+     * Position of a trigger character that is not in the remaining text.
+     */
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final char[] triggers;
+    private final String[] needles;
+    private final long mask;
+    private final boolean[] table;
+
+    /**
+     * Creates a new {@link CharScanner}.
+     *
+     * @param triggers
+     *            Characters to find
+     */
+    public CharScanner(char... triggers) {
+        if (triggers.length == 0) {
+            throw new IllegalArgumentException("no trigger characters");
+        }
+
+        this.triggers = triggers.clone();
+        this.needles = new String[triggers.length];
+        for (int ix = 0; ix < triggers.length; ix++) {
+            needles[ix] = String.valueOf(triggers[ix]);
+        }
+
+        long bits = 0L;
+        char max = 0;
+        for (char ch : triggers) {
+            if (ch < 64) {
+                bits |= 1L << ch;
+            }
+            max = (char) Math.max(max, ch);
+        }
+        mask = bits;
+        table = new boolean[max + 1];
+        for (char ch : triggers) {
+            table[ch] = true;
+        }
+    }
+
+    /**
+     * Starts scanning a text.
+     *
+     * @param text
+     *            Text to be scanned. It must not be changed while it is scanned.
+     * @return {@link Scan} of that text
+     */
+    public Scan scan(CharSequence text) {
+        return new Scan(text);
+    }
+
+    /**
+     * Scans a single text. It is not thread safe.
+     */
+    public final class Scan {
+        private final CharSequence text;
+        private final @Nullable int[] positions;
+        private int last;
+
+        private Scan(CharSequence text) {
+            this.text = text;
+            if (text instanceof String || text instanceof StringBuilder) {
+                positions = new int[triggers.length];
+                Arrays.fill(positions, -1);
+            } else {
+                positions = null;
+            }
+        }
+
+        /**
+         * Finds the next trigger character.
+         *
+         * @param from
+         *            Position to start from
+         * @return Position of the next trigger character, or -1 if there is none
+         */
+        public int next(int from) {
+            if (positions == null) {
+                return nextChar(from);
+            }
+
+            if (from < last) {
+                // scanning backwards, forget the remembered positions
+                Arrays.fill(positions, -1);
+            }
+            last = from;
+
+            int result = NONE;
+            for (int ix = 0; ix < positions.length; ix++) {
+                int pos = positions[ix];
+                if (pos < from) {
+                    pos = indexOf(ix, from);
+                    if (pos < 0) {
+                        pos = NONE;
+                    }
+                    positions[ix] = pos;
+                }
+                result = Math.min(result, pos);
+            }
+            return result != NONE ? result : -1;
+        }
+
+        /**
+         * Finds the next occurrence of a trigger character.
+         *
+         * @param ix
+         *            Index of the trigger character
+         * @param from
+         *            Position to start from
+         * @return Position of the trigger character, or -1 if there is none
+         */
+        private int indexOf(int ix, int from) {
+            if (text instanceof String) {
+                return ((String) text).indexOf(triggers[ix], from);
+            } else {
+                return ((StringBuilder) text).indexOf(needles[ix], from);
+            }
+        }
+
+        /**
+         * Finds the next trigger character by checking every character.
+         */
+        private int nextChar(int from) {
+            long bits = mask;
+            boolean[] tbl = table;
+            int len = text.length();
+            for (int ix = Math.max(from, 0); ix < len; ix++) {
+                char ch = text.charAt(ix);
+                if (ch < 64 ? (bits & (1L << ch)) != 0 : ch < tbl.length && tbl[ch]) {
+                    return ix;
+                }
+            }
+            return -1;
+        }
+    }
+
+}
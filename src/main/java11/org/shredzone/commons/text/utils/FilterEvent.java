@@ -0,0 +1,154 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Reports the execution of a filter to the JDK Flight Recorder.
+ * <p>
+ * This is the Java 11 version, which emits a {@link JfrFilterEvent}. If the event is
+ * disabled, or if the runtime does not contain the {@code jdk.jfr} module, a shared
+ * instance is returned that does nothing.
+ *
+ * @author Richard "Shred" Körber
+ */
+public final class FilterEvent {
+
+    private static final FilterEvent NONE = new FilterEvent(null, -1);
+
+    private final @Nullable JfrFilterEvent event;
+    private final int outputStart;
+
+    private FilterEvent(@Nullable JfrFilterEvent event, int outputStart) {
+        this.event = event;
+        this.outputStart = outputStart;
+    }
+
+    /**
+     * Starts an event.
+     *
+     * @param filter
+     *            Filter class
+     * @param phase
+     *            Processing phase, e.g. "apply", "parse", "render"
+     * @param inputLength
+     *            Length of the input text
+     * @return {@link FilterEvent} to be finished
+     */
+    public static FilterEvent start(Class<?> filter, String phase, int inputLength) {
+        return start(filter, phase, inputLength, -1);
+    }
+
+    /**
+     * Starts an event of a filter that writes to an {@link Appendable}.
+     *
+     * @param filter
+     *            Filter class
+     * @param phase
+     *            Processing phase, e.g. "apply", "parse", "render"
+     * @param inputLength
+     *            Length of the input text
+     * @param out
+     *            {@link Appendable} the filter writes to
+     * @return {@link FilterEvent} to be finished with {@link #finish(Appendable)}
+     */
+    public static FilterEvent start(Class<?> filter, String phase, int inputLength, Appendable out) {
+        return start(filter, phase, inputLength,
+                out instanceof StringBuilder ? ((StringBuilder) out).length() : -1);
+    }
+
+    private static FilterEvent start(Class<?> filter, String phase, int inputLength, int outputStart) {
+        if (!Jfr.isEnabled()) {
+            return NONE;
+        }
+        JfrFilterEvent ev = new JfrFilterEvent();
+        ev.filterClass = filter;
+        ev.phase = phase;
+        ev.inputLength = inputLength;
+        ev.outputLength = -1;
+        ev.begin();
+        return new FilterEvent(ev, outputStart);
+    }
+
+    /**
+     * Finishes the event.
+     *
+     * @param outputLength
+     *            Length of the output text, or -1 if there is no output
+     */
+    public void finish(int outputLength) {
+        JfrFilterEvent ev = event;
+        if (ev != null) {
+            ev.end();
+            if (ev.shouldCommit()) {
+                ev.outputLength = outputLength;
+                ev.commit();
+            }
+        }
+    }
+
+    /**
+     * Finishes the event of a filter that writes to an {@link Appendable}. The output
+     * length is only known if the {@link Appendable} is a {@link StringBuilder}.
+     *
+     * @param out
+     *            {@link Appendable} the filter has written to
+     */
+    public void finish(Appendable out) {
+        if (event != null) {
+            finish(outputStart >= 0 && out instanceof StringBuilder
+                    ? ((StringBuilder) out).length() - outputStart : -1);
+        }
+    }
+
+    /**
+     * Checks once if the JDK Flight Recorder is available. Custom runtime images may not
+     * contain the {@code jdk.jfr} module.
+     * <p>
+     * The event is enabled and disabled at runtime when recordings are started and
+     * stopped, so the enabled state is read from a shared event instance. It does not
+     * depend on the instance, so no event needs to be created while it is disabled.
+     */
+    private static final class Jfr {
+        private static final @Nullable JfrFilterEvent PROBE = probe();
+
+        /**
+         * Returns {@code true} if the event is currently enabled.
+         */
+        static boolean isEnabled() {
+            JfrFilterEvent probe = PROBE;
+            return probe != null && probe.isEnabled();
+        }
+
+        @Nullable
+        private static JfrFilterEvent probe() {
+            if (!ModuleLayer.boot().findModule("jdk.jfr").isPresent()) {
+                return null;
+            }
+            try {
+                return new JfrFilterEvent();
+            } catch (LinkageError ex) {
+                return null;
+            }
+        }
+    }
+
+}
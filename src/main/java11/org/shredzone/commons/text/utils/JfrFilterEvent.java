@@ -0,0 +1,57 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a filter execution.
+ *
+ * @author Richard "Shred" Körber
+ */
+@Name("org.shredzone.commons.text.Filter")
+@Label("Text Filter")
+@Description("Execution of a commons-text filter")
+@Category("Shredzone Commons Text")
+class JfrFilterEvent extends Event {
+
+    @Label("Filter Class")
+    @Nullable
+    Class<?> filterClass;
+
+    @Label("Phase")
+    @Description("Processing phase, e.g. apply, parse, render")
+    @Nullable
+    String phase;
+
+    @Label("Input Length")
+    @Description("Length of the input text, in characters")
+    int inputLength;
+
+    @Label("Output Length")
+    @Description("Length of the output text, in characters, or -1 if unknown")
+    int outputLength;
+
+}
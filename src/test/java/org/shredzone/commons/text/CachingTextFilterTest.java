@@ -0,0 +1,240 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CachingTextFilter}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class CachingTextFilterTest {
+
+    /**
+     * Test that results are cached.
+     */
+    @Test
+    public void cacheTest() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        TextFilter upper = text -> {
+            calls.incrementAndGet();
+            return text.toString().toUpperCase();
+        };
+
+        CachingTextFilter filter = new CachingTextFilter(upper, 16 * 1024);
+
+        Assert.assertEquals("FOO", filter.apply("foo").toString());
+        Assert.assertEquals("FOO", filter.apply(new StringBuilder("foo")).toString());
+        Assert.assertEquals("BAR", filter.apply("bar").toString());
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("bar", out);
+        Assert.assertEquals("BAR", out.toString());
+
+        Assert.assertEquals(2, calls.get());
+        Assert.assertEquals(2L, filter.getHitCount());
+        Assert.assertEquals(2L, filter.getMissCount());
+        Assert.assertEquals(2, filter.size());
+        Assert.assertEquals(12L, filter.getWeight());
+
+        filter.clear();
+        Assert.assertEquals(0, filter.size());
+        Assert.assertEquals(0L, filter.getWeight());
+        Assert.assertEquals("FOO", filter.apply("foo").toString());
+        Assert.assertEquals(3, calls.get());
+    }
+
+    /**
+     * Test that a changed fingerprint invalidates the cached results.
+     */
+    @Test
+    public void fingerprintTest() {
+        AtomicReference<String> suffix = new AtomicReference<>("!");
+        TextFilter filter = text -> text + suffix.get();
+
+        CachingTextFilter cached = new CachingTextFilter(filter, 16 * 1024, suffix::get);
+
+        Assert.assertEquals("foo!", cached.apply("foo").toString());
+        Assert.assertEquals("foo!", cached.apply("foo").toString());
+        suffix.set("?");
+        Assert.assertEquals("foo?", cached.apply("foo").toString());
+        Assert.assertEquals(1L, cached.getHitCount());
+        Assert.assertEquals(2L, cached.getMissCount());
+    }
+
+    /**
+     * Test that results larger than a segment are not cached, and do not evict other
+     * results.
+     */
+    @Test
+    public void oversizedTest() {
+        AtomicInteger calls = new AtomicInteger();
+        TextFilter upper = text -> {
+            calls.incrementAndGet();
+            return text.toString().toUpperCase();
+        };
+
+        // Each of the 16 segments holds up to 100 characters
+        CachingTextFilter filter = new CachingTextFilter(upper, 1600);
+        filter.apply("foo");
+
+        StringBuilder sb = new StringBuilder();
+        for (int ix = 0; ix < 51; ix++) {
+            sb.append('x');
+        }
+        String large = sb.toString();
+
+        Assert.assertEquals(large.toUpperCase(), filter.apply(large).toString());
+        Assert.assertEquals(large.toUpperCase(), filter.apply(large).toString());
+        Assert.assertEquals(3, calls.get());
+        Assert.assertEquals(1, filter.size());
+        Assert.assertEquals(6L, filter.getWeight());
+
+        // "foo" is still cached
+        filter.apply("foo");
+        Assert.assertEquals(3, calls.get());
+    }
+
+    /**
+     * Test that the input is not modified, even if the cached filter works in place.
+     */
+    @Test
+    public void inPlaceTest() {
+        TextFilter reverse = new TextFilter() {
+            @Override
+            public CharSequence apply(CharSequence text) {
+                return toStringBuilder(text).reverse();
+            }
+
+            @Override
+            public boolean isInPlace() {
+                return true;
+            }
+        };
+
+        CachingTextFilter filter = new CachingTextFilter(reverse, 16 * 1024);
+        Assert.assertFalse(filter.isInPlace());
+
+        StringBuilder in = new StringBuilder("abc");
+        Assert.assertEquals("cba", filter.apply(in).toString());
+        Assert.assertEquals("abc", in.toString());
+        Assert.assertEquals("cba", filter.apply(in).toString());
+        Assert.assertEquals(1L, filter.getHitCount());
+    }
+
+    /**
+     * Test that the least recently used results are evicted.
+     */
+    @Test
+    public void evictionTest() {
+        // Each of the 16 segments takes up to 1000 chars, each result weighs 200 chars
+        CachingTextFilter filter = new CachingTextFilter(text -> text, 16 * 1000);
+
+        for (int ix = 0; ix < 1000; ix++) {
+            filter.apply(text(ix, 100));
+        }
+
+        Assert.assertTrue(filter.getWeight() <= 16 * 1000);
+        Assert.assertTrue(filter.size() <= 16 * 5);
+        Assert.assertEquals(1000L - filter.size(), filter.getEvictionCount());
+
+        // The most recent result is still cached
+        filter.apply(text(999, 100));
+        Assert.assertEquals(1L, filter.getHitCount());
+    }
+
+    /**
+     * Test that results exceeding the segment size are not cached.
+     */
+    @Test
+    public void tooLargeTest() {
+        CachingTextFilter filter = new CachingTextFilter(text -> text, 16 * 100);
+
+        filter.apply(text(1, 60));
+        filter.apply(text(1, 60));
+        Assert.assertEquals(0, filter.size());
+        Assert.assertEquals(0L, filter.getHitCount());
+        Assert.assertEquals(2L, filter.getMissCount());
+
+        CachingTextFilter disabled = new CachingTextFilter(text -> text, 0);
+        disabled.apply("");
+        Assert.assertEquals(1, disabled.size());
+        disabled.apply("a");
+        Assert.assertEquals(1, disabled.size());
+    }
+
+    /**
+     * Test concurrent access.
+     */
+    @Test
+    public void concurrencyTest() throws Exception {
+        CachingTextFilter filter = new CachingTextFilter(
+                text -> text.toString().toUpperCase(), 16 * 1000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    boolean ok = true;
+                    for (int ix = 0; ix < 5000; ix++) {
+                        String text = text((ix * 7 + offset) % 200, 20);
+                        ok &= text.toUpperCase().equals(filter.apply(text).toString());
+                    }
+                    return ok;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(8L * 5000L, filter.getHitCount() + filter.getMissCount());
+        Assert.assertTrue(filter.getWeight() <= 16 * 1000);
+    }
+
+    /**
+     * Generates a distinct text of the given length.
+     */
+    private static String text(int number, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        sb.append("text").append(number).append(' ');
+        while (sb.length() < length) {
+            sb.append('x');
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+}
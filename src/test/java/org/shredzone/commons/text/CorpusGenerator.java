@@ -0,0 +1,390 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.util.Random;
+
+/**
+ * Generates a synthetic corpus of forum posts, comments and articles, for tests and
+ * benchmarks.
+ * <p>
+ * The generator is deterministic. The same seed and configuration always generate the
+ * same text, on every platform.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class CorpusGenerator {
+
+    /**
+     * Markup format of the generated text.
+     */
+    public enum Format {
+        PLAIN, HTML, MARKDOWN, TEXTILE
+    }
+
+    /**
+     * Kind of the generated documents.
+     */
+    public enum Kind {
+        /**
+         * Short comments of one or two paragraphs.
+         */
+        COMMENT(1, 2),
+
+        /**
+         * Forum posts of a few paragraphs.
+         */
+        POST(2, 6),
+
+        /**
+         * Long articles with headings and lists.
+         */
+        ARTICLE(6, 14);
+
+        private final int minParagraphs;
+        private final int maxParagraphs;
+
+        Kind(int minParagraphs, int maxParagraphs) {
+            this.minParagraphs = minParagraphs;
+            this.maxParagraphs = maxParagraphs;
+        }
+    }
+
+    private static final String[] WORDS = {"the", "a", "forum", "post", "about", "and",
+            "with", "some", "text", "filter", "really", "is", "was", "it", "of", "to", "in",
+            "that", "for", "on", "you", "this", "but", "not", "have", "what", "all", "can",
+            "there", "if", "my", "an", "so", "they", "one", "would", "just", "like", "when",
+            "time", "people", "good", "think", "know", "more", "new", "first", "other",
+            "reply", "thread", "topic", "question", "answer", "problem", "solution",
+            "browser", "server", "message", "picture", "weekend", "yesterday", "probably",
+            "interesting", "configuration", "documentation", "unfortunately", "absolutely"};
+
+    private static final String[] SMILIES = {":-)", ":-(", ":-P", ":-D", ";-)", ":-))",
+            ":-O", "<3", ":'(", "8-)"};
+
+    private static final String[] HOSTS = {"www.example.com", "example.org",
+            "forum.example.net", "shredzone.example", "images.example.com"};
+
+    private static final String[] HTML_TAGS = {"b", "i", "em", "strong", "span", "code"};
+
+    private final Random random;
+    private Format format = Format.PLAIN;
+    private Kind kind = Kind.POST;
+    private double linkDensity = 0.1;
+    private double smilyDensity = 0.05;
+    private int tagNesting = 2;
+    private double crlfRatio = 0.0;
+
+    /**
+     * Creates a new {@link CorpusGenerator}.
+     *
+     * @param seed
+     *            Random seed
+     */
+    public CorpusGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Sets the markup format. Defaults to {@link Format#PLAIN}.
+     */
+    public CorpusGenerator format(Format format) {
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Sets the kind of documents. Defaults to {@link Kind#POST}.
+     */
+    public CorpusGenerator kind(Kind kind) {
+        this.kind = kind;
+        return this;
+    }
+
+    /**
+     * Sets the probability that a sentence contains a link. Defaults to 0.1.
+     */
+    public CorpusGenerator linkDensity(double linkDensity) {
+        this.linkDensity = linkDensity;
+        return this;
+    }
+
+    /**
+     * Sets the probability that a sentence is followed by a smily. Defaults to 0.05.
+     */
+    public CorpusGenerator smilyDensity(double smilyDensity) {
+        this.smilyDensity = smilyDensity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum nesting depth of inline markup. 0 disables inline markup.
+     * Defaults to 2.
+     */
+    public CorpusGenerator tagNesting(int tagNesting) {
+        this.tagNesting = tagNesting;
+        return this;
+    }
+
+    /**
+     * Sets the ratio of line breaks that are CRLF instead of LF. Defaults to 0.
+     */
+    public CorpusGenerator crlfRatio(double crlfRatio) {
+        this.crlfRatio = crlfRatio;
+        return this;
+    }
+
+    /**
+     * Generates documents until the text has at least the given size. The documents are
+     * separated by empty lines.
+     *
+     * @param size
+     *            Minimum text size, in characters
+     * @return Generated text
+     */
+    public String generate(int size) {
+        StringBuilder sb = new StringBuilder(size + 4096);
+        while (sb.length() < size) {
+            if (sb.length() > 0) {
+                newline(sb);
+                newline(sb);
+            }
+            document(sb);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generates a single document.
+     *
+     * @return Generated document
+     */
+    public String document() {
+        StringBuilder sb = new StringBuilder();
+        document(sb);
+        return sb.toString();
+    }
+
+    private void document(StringBuilder sb) {
+        int paragraphs = between(kind.minParagraphs, kind.maxParagraphs);
+        for (int ix = 0; ix < paragraphs; ix++) {
+            if (ix > 0) {
+                paragraphSeparator(sb);
+            }
+            if (kind == Kind.ARTICLE && ix % 4 == 0) {
+                heading(sb);
+                paragraphSeparator(sb);
+            }
+            if (kind == Kind.ARTICLE && ix % 4 == 2) {
+                list(sb);
+            } else {
+                paragraph(sb);
+            }
+        }
+    }
+
+    private void heading(StringBuilder sb) {
+        switch (format) {
+            case HTML:
+                sb.append("<h2>");
+                words(sb, between(2, 5));
+                sb.append("</h2>");
+                break;
+            case MARKDOWN:
+                sb.append("## ");
+                words(sb, between(2, 5));
+                break;
+            case TEXTILE:
+                sb.append("h2. ");
+                words(sb, between(2, 5));
+                break;
+            default:
+                words(sb, between(2, 5));
+                sb.append(':');
+                break;
+        }
+    }
+
+    private void list(StringBuilder sb) {
+        int items = between(2, 6);
+        if (format == Format.HTML) {
+            sb.append("<ul>");
+            for (int ix = 0; ix < items; ix++) {
+                sb.append("<li>");
+                sentence(sb);
+                sb.append("</li>");
+            }
+            sb.append("</ul>");
+            return;
+        }
+
+        String bullet = format == Format.PLAIN ? "- " : "* ";
+        for (int ix = 0; ix < items; ix++) {
+            if (ix > 0) {
+                newline(sb);
+            }
+            sb.append(bullet);
+            sentence(sb);
+        }
+    }
+
+    private void paragraph(StringBuilder sb) {
+        if (format == Format.HTML) {
+            sb.append("<p>");
+        }
+        int sentences = between(2, 6);
+        for (int ix = 0; ix < sentences; ix++) {
+            if (ix > 0) {
+                if (random.nextInt(4) == 0) {
+                    if (format == Format.HTML) {
+                        sb.append("<br />");
+                    }
+                    newline(sb);
+                } else {
+                    sb.append(' ');
+                }
+            }
+            sentence(sb);
+            if (random.nextDouble() < smilyDensity) {
+                sb.append(' ').append(SMILIES[random.nextInt(SMILIES.length)]);
+            }
+        }
+        if (format == Format.HTML) {
+            sb.append("</p>");
+        }
+    }
+
+    private void sentence(StringBuilder sb) {
+        int words = between(4, 14);
+        int linkAt = random.nextDouble() < linkDensity ? random.nextInt(words) : -1;
+        int markupAt = tagNesting > 0 && format != Format.PLAIN && random.nextInt(3) == 0
+                        ? random.nextInt(words) : -1;
+
+        for (int ix = 0; ix < words; ix++) {
+            if (ix > 0) {
+                sb.append(' ');
+            }
+            if (ix == linkAt) {
+                link(sb);
+            } else if (ix == markupAt) {
+                markup(sb, 1);
+            } else {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                if (ix == 0) {
+                    sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                } else {
+                    sb.append(word);
+                }
+            }
+        }
+        int punctuation = random.nextInt(10);
+        sb.append(punctuation < 7 ? '.' : punctuation < 9 ? '!' : '?');
+    }
+
+    private void markup(StringBuilder sb, int depth) {
+        String tag = HTML_TAGS[random.nextInt(HTML_TAGS.length)];
+        String open;
+        String close;
+        switch (format) {
+            case HTML:
+                open = '<' + tag + '>';
+                close = "</" + tag + '>';
+                break;
+            case MARKDOWN:
+                open = depth % 2 == 1 ? "**" : "_";
+                close = open;
+                break;
+            default:
+                open = depth % 2 == 1 ? "*" : "_";
+                close = open;
+                break;
+        }
+
+        sb.append(open);
+        words(sb, between(1, 3));
+        if (depth < tagNesting && random.nextBoolean()) {
+            sb.append(' ');
+            markup(sb, depth + 1);
+        }
+        sb.append(close);
+    }
+
+    private void link(StringBuilder sb) {
+        StringBuilder url = new StringBuilder();
+        url.append(random.nextBoolean() ? "https://" : "http://");
+        url.append(HOSTS[random.nextInt(HOSTS.length)]);
+        int segments = between(0, 3);
+        for (int ix = 0; ix < segments; ix++) {
+            url.append('/').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            url.append("?id=").append(random.nextInt(10000));
+        }
+
+        switch (format) {
+            case HTML:
+                sb.append("<a href=\"").append(url).append("\">");
+                words(sb, between(1, 3));
+                sb.append("</a>");
+                break;
+            case MARKDOWN:
+                sb.append('[');
+                words(sb, between(1, 3));
+                sb.append("](").append(url).append(')');
+                break;
+            case TEXTILE:
+                sb.append('"');
+                words(sb, between(1, 3));
+                sb.append("\":").append(url);
+                break;
+            default:
+                sb.append(url);
+                break;
+        }
+    }
+
+    private void words(StringBuilder sb, int count) {
+        for (int ix = 0; ix < count; ix++) {
+            if (ix > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+    }
+
+    private void paragraphSeparator(StringBuilder sb) {
+        if (format != Format.HTML) {
+            newline(sb);
+        }
+        newline(sb);
+    }
+
+    private void newline(StringBuilder sb) {
+        if (crlfRatio > 0.0 && random.nextDouble() < crlfRatio) {
+            sb.append('\r');
+        }
+        sb.append('\n');
+    }
+
+    private int between(int min, int max) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.shredzone.commons.text.CorpusGenerator.Format;
+import org.shredzone.commons.text.CorpusGenerator.Kind;
+
+/**
+ * Unit test for {@link CorpusGenerator}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class CorpusGeneratorTest {
+
+    @Test
+    public void deterministicTest() {
+        String text1 = new CorpusGenerator(42L).format(Format.HTML).generate(10000);
+        String text2 = new CorpusGenerator(42L).format(Format.HTML).generate(10000);
+        String text3 = new CorpusGenerator(43L).format(Format.HTML).generate(10000);
+
+        Assert.assertEquals(text1, text2);
+        Assert.assertNotEquals(text1, text3);
+        Assert.assertTrue(text1.length() >= 10000);
+    }
+
+    @Test
+    public void densityTest() {
+        String plain = new CorpusGenerator(1L).linkDensity(0.0).smilyDensity(0.0).generate(5000);
+        Assert.assertFalse(plain.contains("http"));
+        Assert.assertFalse(plain.contains(":-"));
+        Assert.assertFalse(plain.contains("\r"));
+
+        String busy = new CorpusGenerator(1L).linkDensity(1.0).smilyDensity(1.0)
+                .crlfRatio(1.0).generate(5000);
+        Assert.assertTrue(count(busy, "http") > 50);
+        Assert.assertEquals(count(busy, "\n"), count(busy, "\r\n"));
+    }
+
+    @Test
+    public void formatTest() {
+        String html = new CorpusGenerator(7L).format(Format.HTML).kind(Kind.ARTICLE)
+                .tagNesting(3).generate(20000);
+        Assert.assertTrue(html.contains("<h2>"));
+        Assert.assertTrue(html.contains("<li>"));
+        for (String tag : new String[] {"p", "b", "i", "em", "strong", "span", "code", "a"}) {
+            Assert.assertEquals(tag, count(html, "<" + tag + ">") + count(html, "<" + tag + " "),
+                    count(html, "</" + tag + ">"));
+        }
+
+        String markdown = new CorpusGenerator(7L).format(Format.MARKDOWN).kind(Kind.ARTICLE)
+                .linkDensity(0.5).generate(20000);
+        Assert.assertTrue(markdown.contains("## "));
+        Assert.assertTrue(markdown.contains("]("));
+
+        String textile = new CorpusGenerator(7L).format(Format.TEXTILE).kind(Kind.ARTICLE)
+                .linkDensity(0.5).generate(20000);
+        Assert.assertTrue(textile.contains("h2. "));
+        Assert.assertTrue(textile.contains("\":http"));
+
+        String comment = new CorpusGenerator(7L).kind(Kind.COMMENT).document();
+        Assert.assertFalse(comment.contains("\n\n\n"));
+        Assert.assertTrue(comment.length() < 2000);
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int ix = text.indexOf(part); ix >= 0; ix = text.indexOf(part, ix + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+}
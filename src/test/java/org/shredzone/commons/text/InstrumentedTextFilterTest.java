@@ -0,0 +1,154 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link InstrumentedTextFilter}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class InstrumentedTextFilterTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final TextFilterListener listener = new TextFilterListener() {
+        @Override
+        public void onApply(String name, int inputLength, int outputLength, long nanos) {
+            Assert.assertTrue(nanos >= 0L);
+            events.add(name + ":" + inputLength + ">" + outputLength);
+        }
+
+        @Override
+        public void onFailure(String name, int inputLength, long nanos, Throwable ex) {
+            events.add(name + ":" + inputLength + "!" + ex.getMessage());
+        }
+    };
+
+    /**
+     * Test that the filter is measured.
+     */
+    @Test
+    public void applyTest() throws IOException {
+        InstrumentedTextFilter filter = new InstrumentedTextFilter(
+                text -> text.toString() + text, "double", listener);
+
+        Assert.assertEquals("double", filter.getName());
+        Assert.assertEquals("abcabc", filter.apply("abc").toString());
+
+        StringBuilder sb = new StringBuilder("xx");
+        filter.apply("abcd", sb);
+        Assert.assertEquals("xxabcdabcd", sb.toString());
+
+        StringWriter writer = new StringWriter();
+        filter.apply("a", writer);
+        Assert.assertEquals("aa", writer.toString());
+
+        Assert.assertEquals("[double:3>6, double:4>8, double:1>2]", events.toString());
+    }
+
+    /**
+     * Test that the input length of in-place filters is measured before the input is
+     * modified.
+     */
+    @Test
+    public void inPlaceTest() {
+        TextFilter truncate = new TextFilter() {
+            @Override
+            public CharSequence apply(CharSequence text) {
+                StringBuilder sb = toStringBuilder(text);
+                sb.setLength(2);
+                return sb;
+            }
+
+            @Override
+            public boolean isInPlace() {
+                return true;
+            }
+        };
+
+        InstrumentedTextFilter filter = new InstrumentedTextFilter(truncate, "truncate", listener);
+        Assert.assertTrue(filter.isInPlace());
+
+        StringBuilder sb = new StringBuilder("abcdef");
+        Assert.assertSame(sb, filter.apply(sb));
+        Assert.assertEquals("[truncate:6>2]", events.toString());
+    }
+
+    /**
+     * Test that failures are reported.
+     */
+    @Test
+    public void failureTest() {
+        InstrumentedTextFilter filter = new InstrumentedTextFilter(text -> {
+            throw new IllegalStateException("broken");
+        }, "fail", listener);
+
+        try {
+            filter.apply("abc");
+            Assert.fail("exception was not thrown");
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("broken", ex.getMessage());
+        }
+        Assert.assertEquals("[fail:3!broken]", events.toString());
+    }
+
+    /**
+     * Test that a disabled filter is not measured.
+     */
+    @Test
+    public void disabledTest() throws IOException {
+        InstrumentedTextFilter filter = new InstrumentedTextFilter(
+                text -> text + "!", "bang", listener);
+
+        filter.setEnabled(false);
+        Assert.assertFalse(filter.isEnabled());
+        Assert.assertEquals("abc!", filter.apply("abc").toString());
+        StringBuilder sb = new StringBuilder();
+        filter.apply("abc", sb);
+        Assert.assertEquals("abc!", sb.toString());
+        Assert.assertTrue(events.isEmpty());
+
+        filter.setEnabled(true);
+        filter.apply("abc");
+        Assert.assertEquals("[bang:3>4]", events.toString());
+    }
+
+    /**
+     * Test measuring the stages of a chain.
+     */
+    @Test
+    public void chainTest() {
+        TextFilterChain chain = new TextFilterChain(
+                new InstrumentedTextFilter(text -> text.toString().trim(), "trim", listener),
+                new InstrumentedTextFilter(text -> "<p>" + text + "</p>", "para", listener));
+
+        Assert.assertEquals("<p>abc</p>", chain.apply("  abc  ").toString());
+        Assert.assertEquals("[trim:7>3, para:3>10]", events.toString());
+    }
+
+}
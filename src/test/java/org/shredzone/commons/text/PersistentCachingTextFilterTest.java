@@ -0,0 +1,213 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link PersistentCachingTextFilter}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class PersistentCachingTextFilterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final TextFilter upper = text -> {
+        calls.incrementAndGet();
+        return text.toString().toUpperCase();
+    };
+
+    /**
+     * Test that results are cached, and survive a restart.
+     */
+    @Test
+    public void persistenceTest() throws IOException {
+        Path dir = folder.getRoot().toPath().resolve("cache");
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            Assert.assertEquals("FOO", filter.apply("foo").toString());
+            Assert.assertEquals("FOO", filter.apply(new StringBuilder("foo")).toString());
+            Assert.assertEquals("ÄÖÜ 😀", filter.apply("äöü 😀").toString());
+
+            StringBuilder out = new StringBuilder();
+            filter.apply("", out);
+            Assert.assertEquals("", out.toString());
+
+            Assert.assertEquals(1L, filter.getHitCount());
+            Assert.assertEquals(3L, filter.getMissCount());
+            Assert.assertEquals(3, filter.size());
+        }
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            Assert.assertEquals("FOO", filter.apply("foo").toString());
+            Assert.assertEquals("ÄÖÜ 😀", filter.apply("äöü 😀").toString());
+            Assert.assertEquals("", filter.apply("").toString());
+            Assert.assertEquals(3L, filter.getHitCount());
+            Assert.assertEquals(0L, filter.getMissCount());
+        }
+
+        Assert.assertEquals(3, calls.get());
+    }
+
+    /**
+     * Test that results of other fingerprints are not used, and are removed on
+     * compaction.
+     */
+    @Test
+    public void compactTest() throws IOException {
+        Path dir = folder.getRoot().toPath();
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            filter.apply("foo");
+            filter.apply("bar");
+        }
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v2")) {
+            Assert.assertEquals("FOO", filter.apply("foo").toString());
+            Assert.assertEquals(1L, filter.getMissCount());
+            Assert.assertEquals(3, filter.size());
+        }
+
+        long size = Files.size(dir.resolve("data"));
+        PersistentCachingTextFilter.compact(dir, "v2");
+        Assert.assertTrue(Files.size(dir.resolve("data")) < size);
+        Assert.assertFalse(Files.exists(dir.resolve("compact")));
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v2")) {
+            Assert.assertEquals(1, filter.size());
+            Assert.assertEquals("FOO", filter.apply("foo").toString());
+            Assert.assertEquals(1L, filter.getHitCount());
+        }
+    }
+
+    /**
+     * Test that a missing or damaged index is rebuilt from the data file, and an
+     * incomplete record is removed.
+     */
+    @Test
+    public void recoveryTest() throws IOException {
+        Path dir = folder.getRoot().toPath();
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            for (int ix = 0; ix < 3000; ix++) {
+                filter.apply("text " + ix);
+            }
+        }
+
+        Files.delete(dir.resolve("index"));
+        try (RandomAccessFile raf = new RandomAccessFile(dir.resolve("data").toFile(), "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            Assert.assertEquals(2999, filter.size());
+            for (int ix = 0; ix < 3000; ix++) {
+                Assert.assertEquals("TEXT " + ix, filter.apply("text " + ix).toString());
+            }
+            Assert.assertEquals(2999L, filter.getHitCount());
+            Assert.assertEquals(1L, filter.getMissCount());
+        }
+    }
+
+    /**
+     * Test that a cache directory cannot be used twice.
+     */
+    @Test
+    public void lockTest() throws IOException {
+        Path dir = folder.getRoot().toPath();
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            try {
+                new PersistentCachingTextFilter(upper, dir, "v1").close();
+                Assert.fail("cache was opened twice");
+            } catch (IOException ex) {
+                // expected
+            }
+
+            try {
+                PersistentCachingTextFilter.compact(dir, "v1");
+                Assert.fail("cache in use was compacted");
+            } catch (IOException ex) {
+                // expected
+            }
+
+            Assert.assertEquals("FOO", filter.apply("foo").toString());
+        }
+
+        try {
+            new PersistentCachingTextFilter(upper, dir, "v1").close();
+        } catch (IOException ex) {
+            Assert.fail("cache was not unlocked");
+        }
+    }
+
+    /**
+     * Test concurrent access.
+     */
+    @Test
+    public void concurrencyTest() throws Exception {
+        Path dir = folder.getRoot().toPath();
+
+        try (PersistentCachingTextFilter filter = new PersistentCachingTextFilter(upper, dir, "v1")) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    int offset = t;
+                    results.add(executor.submit(() -> {
+                        boolean ok = true;
+                        for (int ix = 0; ix < 2000; ix++) {
+                            String text = "text " + ((ix * 7 + offset) % 1500);
+                            ok &= text.toUpperCase().equals(filter.apply(text).toString());
+                        }
+                        return ok;
+                    }));
+                }
+                for (Future<Boolean> result : results) {
+                    Assert.assertTrue(result.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            Assert.assertEquals(1500, filter.size());
+            Assert.assertEquals(8L * 2000L, filter.getHitCount() + filter.getMissCount());
+        }
+    }
+
+}
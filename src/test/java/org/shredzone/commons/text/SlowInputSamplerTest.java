@@ -0,0 +1,196 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.shredzone.commons.text.filter.HtmlEscapeFilter;
+import org.shredzone.commons.text.filter.NormalizeFilter;
+
+/**
+ * Unit test for {@link SlowInputSampler}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class SlowInputSamplerTest {
+
+    private static final TextFilter SLOW = text -> {
+        if (text.toString().contains("slow")) {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return text.toString().toUpperCase();
+    };
+
+    /**
+     * Test that only slow invocations are captured.
+     */
+    @Test
+    public void thresholdTest() {
+        SlowInputSampler sampler = new SlowInputSampler(Duration.ofMillis(20L), 10, 100);
+        TextFilter filter = sampler.wrap(SLOW, "upper");
+
+        Assert.assertEquals("FAST", filter.apply("fast").toString());
+        Assert.assertEquals("SLOW", filter.apply("slow").toString());
+        Assert.assertEquals("QUICK", filter.apply("quick").toString());
+
+        List<SlowInputSampler.Sample> samples = sampler.getSamples();
+        Assert.assertEquals(1, samples.size());
+
+        SlowInputSampler.Sample sample = samples.get(0);
+        Assert.assertEquals("upper", sample.getName());
+        Assert.assertEquals("slow", sample.getInput());
+        Assert.assertEquals(4, sample.getInputLength());
+        Assert.assertFalse(sample.isTruncated());
+        Assert.assertTrue(sample.getDuration().toMillis() >= 20L);
+        Assert.assertNotNull(sample.getTimestamp());
+
+        sampler.clear();
+        Assert.assertTrue(sampler.getSamples().isEmpty());
+    }
+
+    /**
+     * Test that the ring buffer keeps the latest samples.
+     */
+    @Test
+    public void ringBufferTest() {
+        SlowInputSampler sampler = new SlowInputSampler(Duration.ZERO, 3, 100);
+        TextFilter filter = sampler.wrap(text -> text, "identity");
+
+        for (int ix = 0; ix < 5; ix++) {
+            filter.apply("text " + ix);
+        }
+
+        List<SlowInputSampler.Sample> samples = sampler.getSamples();
+        Assert.assertEquals(3, samples.size());
+        Assert.assertEquals("text 2", samples.get(0).getInput());
+        Assert.assertEquals("text 3", samples.get(1).getInput());
+        Assert.assertEquals("text 4", samples.get(2).getInput());
+    }
+
+    /**
+     * Test that long inputs are truncated.
+     */
+    @Test
+    public void truncateTest() {
+        SlowInputSampler sampler = new SlowInputSampler(Duration.ZERO, 3, 5);
+        sampler.wrap(text -> text, "identity").apply("0123456789");
+
+        SlowInputSampler.Sample sample = sampler.getSamples().get(0);
+        Assert.assertEquals("01234", sample.getInput());
+        Assert.assertEquals(10, sample.getInputLength());
+        Assert.assertTrue(sample.isTruncated());
+    }
+
+    /**
+     * Test that mutable inputs are captured before the filter changes them.
+     */
+    @Test
+    public void inPlaceTest() throws IOException {
+        TextFilter reverse = new TextFilter() {
+            @Override
+            public CharSequence apply(CharSequence text) {
+                return toStringBuilder(text).reverse();
+            }
+
+            @Override
+            public boolean isInPlace() {
+                return true;
+            }
+        };
+
+        SlowInputSampler sampler = new SlowInputSampler(Duration.ZERO, 3, 100);
+        TextFilter filter = sampler.wrap(reverse, "reverse");
+        Assert.assertTrue(filter.isInPlace());
+
+        StringBuilder text = new StringBuilder("abc");
+        Assert.assertEquals("cba", filter.apply(text).toString());
+
+        StringBuilder out = new StringBuilder();
+        filter.apply(new StringBuilder("xyz"), out);
+        Assert.assertEquals("zyx", out.toString());
+
+        List<SlowInputSampler.Sample> samples = sampler.getSamples();
+        Assert.assertEquals(2, samples.size());
+        Assert.assertEquals("abc", samples.get(0).getInput());
+        Assert.assertEquals("xyz", samples.get(1).getInput());
+    }
+
+    /**
+     * Test that mutable inputs are captured before a filter chain changes them, even if
+     * the chain does not work in place.
+     */
+    @Test
+    public void chainTest() throws IOException {
+        TextFilter chain = new TextFilterChain(new NormalizeFilter(), new HtmlEscapeFilter());
+
+        SlowInputSampler sampler = new SlowInputSampler(Duration.ZERO, 3, 100);
+        TextFilter filter = sampler.wrap(chain, "chain");
+        Assert.assertFalse(filter.isInPlace());
+
+        Assert.assertEquals("a\n&lt;b", filter.apply(new StringBuilder("a\r\n<b")).toString());
+
+        StringBuilder out = new StringBuilder();
+        filter.apply(new StringBuilder("c\r<d"), out);
+        Assert.assertEquals("c\n&lt;d", out.toString());
+
+        List<SlowInputSampler.Sample> samples = sampler.getSamples();
+        Assert.assertEquals(2, samples.size());
+        Assert.assertEquals("a\r\n<b", samples.get(0).getInput());
+        Assert.assertEquals("c\r<d", samples.get(1).getInput());
+    }
+
+    /**
+     * Test the dump output.
+     */
+    @Test
+    public void dumpTest() throws IOException {
+        SlowInputSampler sampler = new SlowInputSampler(Duration.ZERO, 3, 4);
+        TextFilter filter = sampler.wrap(text -> text, "identity");
+        filter.apply("foo");
+        filter.apply("foobar");
+
+        StringBuilder out = new StringBuilder();
+        sampler.dump(out);
+
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(4, lines.length);
+        Assert.assertTrue(lines[0], lines[0].matches("--- \\S+ identity \\d+ ms, 3 chars"));
+        Assert.assertEquals("foo", lines[1]);
+        Assert.assertTrue(lines[2], lines[2].matches("--- \\S+ identity \\d+ ms, 6 chars \\(truncated\\)"));
+        Assert.assertEquals("foob", lines[3]);
+    }
+
+    /**
+     * Test that invalid parameters are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void badCapacityTest() {
+        new SlowInputSampler(Duration.ZERO, 0, 100);
+    }
+
+}
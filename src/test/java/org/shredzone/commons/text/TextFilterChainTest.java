@@ -0,0 +1,198 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.shredzone.commons.text.filter.HtmlEscapeFilter;
+import org.shredzone.commons.text.filter.KeepFilter;
+import org.shredzone.commons.text.filter.LinkToUrlFilter;
+import org.shredzone.commons.text.filter.NormalizeFilter;
+import org.shredzone.commons.text.filter.ParagraphFilter;
+import org.shredzone.commons.text.filter.SmilyFilter;
+
+/**
+ * Unit test for {@link TextFilterChain}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class TextFilterChainTest {
+
+    private static final String TEXT = "Hi! :-)\r\nHave a look at <this> & <that>"
+            + "\r\n\r\nBye \"all\" :-P\r\n";
+
+    private SmilyFilter smilyFilter;
+
+    @Before
+    public void setup() {
+        smilyFilter = new SmilyFilter();
+        smilyFilter.setBaseUrl("/smileys");
+        smilyFilter.addSmily(":-)", "happy.png");
+        smilyFilter.addSmily(":-P", "tongue.png");
+    }
+
+    @Test
+    public void chainTest() {
+        TextFilterChain chain = new TextFilterChain(new NormalizeFilter(),
+                new HtmlEscapeFilter(), new LinkToUrlFilter(), smilyFilter,
+                new ParagraphFilter());
+
+        Function<CharSequence, CharSequence> function = new NormalizeFilter()
+                .andThen(new HtmlEscapeFilter())
+                .andThen(new LinkToUrlFilter())
+                .andThen(smilyFilter)
+                .andThen(new ParagraphFilter());
+
+        CharSequence out = chain.apply(TEXT);
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("<p>Hi! <img src=\"/smileys/happy.png\" alt=\":-)\" /><br />");
+        expect.append("Have a look at &lt;this> &amp; &lt;that></p>");
+        expect.append("<p>Bye &quot;all&quot; <img src=\"/smileys/tongue.png\" alt=\":-P\" /></p>");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+        Assert.assertEquals(function.apply(TEXT).toString(), out.toString());
+        Assert.assertFalse(chain.isInPlace());
+    }
+
+    @Test
+    public void streamTest() throws IOException {
+        TextFilterChain chain = new TextFilterChain(new NormalizeFilter(),
+                new HtmlEscapeFilter(), new ParagraphFilter());
+
+        StringBuilder out = new StringBuilder();
+        chain.apply(new StringBuilder("A <b>bold</b>\r\n\r\nmove"), out);
+
+        Assert.assertEquals("<p>A &lt;b>bold&lt;/b></p><p>move</p>", out.toString());
+    }
+
+    @Test
+    public void inPlaceTest() {
+        TextFilterChain chain = new TextFilterChain(new KeepFilter(), new NormalizeFilter());
+        Assert.assertTrue(chain.isInPlace());
+
+        StringBuilder sb = new StringBuilder("foo\r\nbar");
+        CharSequence out = chain.apply(sb);
+
+        Assert.assertEquals("foo\nbar", out.toString());
+        Assert.assertSame(sb, out);
+    }
+
+    @Test
+    public void emptyTest() throws IOException {
+        TextFilterChain chain = new TextFilterChain();
+
+        Assert.assertEquals("foo", chain.apply("foo").toString());
+
+        StringBuilder out = new StringBuilder();
+        chain.apply("foo", out);
+        Assert.assertEquals("foo", out.toString());
+    }
+
+    @Test
+    public void inputUntouchedTest() {
+        TextFilterChain chain = new TextFilterChain(new HtmlEscapeFilter(),
+                new HtmlEscapeFilter());
+
+        StringBuilder sb = new StringBuilder("<&>");
+        CharSequence out = chain.apply(sb);
+
+        Assert.assertEquals("&amp;lt;&amp;amp;>", out.toString());
+        Assert.assertEquals("<&>", sb.toString());
+    }
+
+    @Test
+    public void corpusTest() throws IOException {
+        TextFilterChain chain = new TextFilterChain(new NormalizeFilter(),
+                new HtmlEscapeFilter(), new LinkToUrlFilter(), smilyFilter,
+                new ParagraphFilter());
+
+        Function<CharSequence, CharSequence> function = new NormalizeFilter()
+                .andThen(new HtmlEscapeFilter())
+                .andThen(new LinkToUrlFilter())
+                .andThen(smilyFilter)
+                .andThen(new ParagraphFilter());
+
+        for (CorpusGenerator.Format format : CorpusGenerator.Format.values()) {
+            String text = new CorpusGenerator(format.ordinal()).format(format)
+                    .linkDensity(0.3).smilyDensity(0.3).crlfRatio(0.5).generate(20000);
+
+            String expected = function.apply(text).toString();
+            Assert.assertEquals(format.name(), expected, chain.apply(text).toString());
+
+            StringBuilder out = new StringBuilder();
+            chain.apply(text, out);
+            Assert.assertEquals(format.name(), expected, out.toString());
+        }
+    }
+
+    @Test
+    public void bypassTest() throws IOException {
+        TextFilter skipped = new TextFilter() {
+            @Override
+            public CharSequence apply(CharSequence text) {
+                throw new AssertionError("filter was not bypassed");
+            }
+
+            @Override
+            public boolean mayModify(CharSequence text) {
+                return false;
+            }
+        };
+
+        TextFilterChain chain = new TextFilterChain(skipped, new HtmlEscapeFilter(),
+                skipped);
+
+        String text = "no markup";
+        Assert.assertFalse(chain.mayModify(text));
+        Assert.assertSame(text, chain.apply(text));
+
+        Assert.assertTrue(chain.mayModify("<markup>"));
+        Assert.assertEquals("&lt;markup>", chain.apply("<markup>").toString());
+
+        StringBuilder out = new StringBuilder();
+        chain.apply("<markup>", out);
+        Assert.assertEquals("&lt;markup>", out.toString());
+    }
+
+    @Test
+    public void estimateTest() {
+        TextFilter doubling = new TextFilter() {
+            @Override
+            public CharSequence apply(CharSequence text) {
+                return text.toString() + text;
+            }
+
+            @Override
+            public int estimateOutputLength(int inputLength) {
+                return inputLength * 2;
+            }
+        };
+
+        TextFilterChain chain = new TextFilterChain(doubling, new KeepFilter(), doubling);
+        Assert.assertEquals(400, chain.estimateOutputLength(100));
+        Assert.assertEquals(100, new TextFilterChain().estimateOutputLength(100));
+    }
+
+}
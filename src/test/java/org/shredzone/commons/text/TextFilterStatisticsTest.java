@@ -0,0 +1,111 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.shredzone.commons.text.TextFilterStatistics.Metrics;
+
+/**
+ * Unit test for {@link TextFilterStatistics}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class TextFilterStatisticsTest {
+
+    /**
+     * Test collecting statistics.
+     */
+    @Test
+    public void statisticsTest() {
+        TextFilterStatistics stats = new TextFilterStatistics();
+        Assert.assertTrue(stats.getNames().isEmpty());
+        Assert.assertNull(stats.get("markdown"));
+
+        stats.onApply("markdown", 100, 150, 1000L);
+        stats.onApply("markdown", 300, 450, 3000L);
+        stats.onApply("escape", 10, 10, 1L);
+        stats.onFailure("markdown", 10, 20L, new IllegalStateException());
+
+        Assert.assertEquals("[escape, markdown]", stats.getNames().toString());
+
+        Metrics markdown = stats.get("markdown");
+        Assert.assertNotNull(markdown);
+        Assert.assertEquals(2L, markdown.getCalls());
+        Assert.assertEquals(1L, markdown.getFailures());
+        Assert.assertEquals(400L, markdown.getInputChars());
+        Assert.assertEquals(600L, markdown.getOutputChars());
+        Assert.assertEquals(1.5, markdown.getExpansionRatio(), 0.0001);
+        Assert.assertEquals(4000L, markdown.getTotalNanos());
+        Assert.assertEquals(2000L, markdown.getMeanNanos());
+        Assert.assertEquals(3000L, markdown.getMaxNanos());
+
+        long[] histogram = markdown.getHistogram();
+        Assert.assertEquals(Metrics.BUCKETS, histogram.length);
+        Assert.assertEquals(1L, histogram[9]);  // 1000 ns: 512..1023
+        Assert.assertEquals(1L, histogram[11]); // 3000 ns: 2048..4095
+        Assert.assertEquals(2L, Arrays.stream(histogram).sum());
+
+        Metrics escape = stats.get("escape");
+        Assert.assertNotNull(escape);
+        Assert.assertEquals(1L, escape.getHistogram()[0]);
+
+        stats.reset();
+        Assert.assertTrue(stats.getNames().isEmpty());
+    }
+
+    /**
+     * Test the percentile estimation.
+     */
+    @Test
+    public void percentileTest() {
+        TextFilterStatistics stats = new TextFilterStatistics();
+        stats.onApply("filter", 0, 0, 0L);
+        Metrics metrics = stats.get("filter");
+        Assert.assertNotNull(metrics);
+        Assert.assertEquals(1L, metrics.getPercentileNanos(50.0));
+
+        stats.reset();
+        for (int ix = 0; ix < 99; ix++) {
+            stats.onApply("filter", 0, 0, 100L);
+        }
+        stats.onApply("filter", 0, 0, 1_000_000L);
+        stats.onApply("filter", 0, 0, Long.MAX_VALUE);
+
+        metrics = stats.get("filter");
+        Assert.assertNotNull(metrics);
+        Assert.assertEquals(127L, metrics.getPercentileNanos(0.0));
+        Assert.assertEquals(127L, metrics.getPercentileNanos(50.0));
+        Assert.assertEquals(127L, metrics.getPercentileNanos(98.0));
+        Assert.assertEquals(1_048_575L, metrics.getPercentileNanos(99.0));
+        Assert.assertEquals(Long.MAX_VALUE, metrics.getPercentileNanos(100.0));
+        Assert.assertEquals(1.0, metrics.getExpansionRatio(), 0.0001);
+
+        try {
+            metrics.getPercentileNanos(101.0);
+            Assert.fail("percentile out of range was accepted");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+}
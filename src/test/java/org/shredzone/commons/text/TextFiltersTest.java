@@ -0,0 +1,169 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TextFilters}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class TextFiltersTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that the results are in order.
+     */
+    @Test
+    public void orderTest() {
+        List<CharSequence> texts = new ArrayList<>();
+        for (int ix = 0; ix < 1000; ix++) {
+            texts.add(ix % 2 == 0 ? "text " + ix : new StringBuilder("text ").append(ix));
+        }
+
+        List<String> results = TextFilters.applyAll(texts,
+                text -> text.toString().toUpperCase(), executor);
+
+        Assert.assertEquals(1000, results.size());
+        for (int ix = 0; ix < 1000; ix++) {
+            Assert.assertEquals("TEXT " + ix, results.get(ix));
+        }
+
+        Assert.assertEquals(Arrays.asList("A", "B"),
+                TextFilters.applyAll(Arrays.asList("a", "b"), text -> text.toString().toUpperCase()));
+        Assert.assertTrue(TextFilters.applyAll(Collections.emptyList(), text -> text, executor).isEmpty());
+    }
+
+    /**
+     * Test that identical texts are filtered only once.
+     */
+    @Test
+    public void dedupTest() {
+        AtomicInteger calls = new AtomicInteger();
+        TextFilter filter = text -> {
+            calls.incrementAndGet();
+            return "<" + text + ">";
+        };
+
+        List<String> results = TextFilters.applyAll(
+                Arrays.asList("a", "b", new StringBuilder("a"), "c", "b", "a"), filter, executor);
+
+        Assert.assertEquals(Arrays.asList("<a>", "<b>", "<a>", "<c>", "<b>", "<a>"), results);
+        Assert.assertEquals(3, calls.get());
+        Assert.assertSame(results.get(0), results.get(5));
+    }
+
+    /**
+     * Test that every worker gets its own filter instance, and that the input is not
+     * modified.
+     */
+    @Test
+    public void perWorkerTest() {
+        AtomicInteger instances = new AtomicInteger();
+        AtomicBoolean concurrent = new AtomicBoolean();
+
+        List<StringBuilder> texts = new ArrayList<>();
+        for (int ix = 0; ix < 500; ix++) {
+            texts.add(new StringBuilder("text ").append(ix));
+        }
+
+        List<String> results = TextFilters.applyAll(texts, () -> {
+            instances.incrementAndGet();
+            AtomicBoolean busy = new AtomicBoolean();
+            return new TextFilter() {
+                @Override
+                public CharSequence apply(CharSequence text) {
+                    if (!busy.compareAndSet(false, true)) {
+                        concurrent.set(true);
+                    }
+                    StringBuilder result = toStringBuilder(text).reverse();
+                    busy.set(false);
+                    return result;
+                }
+
+                @Override
+                public boolean isInPlace() {
+                    return true;
+                }
+            };
+        }, executor);
+
+        Assert.assertFalse(concurrent.get());
+        Assert.assertTrue(instances.get() >= 1);
+        Assert.assertTrue(instances.get() <= Runtime.getRuntime().availableProcessors());
+        for (int ix = 0; ix < 500; ix++) {
+            Assert.assertEquals("text " + ix, texts.get(ix).toString());
+            Assert.assertEquals(new StringBuilder("text ").append(ix).reverse().toString(),
+                    results.get(ix));
+        }
+    }
+
+    /**
+     * Test that exceptions are passed to the invoker.
+     */
+    @Test
+    public void exceptionTest() {
+        List<String> texts = new ArrayList<>();
+        for (int ix = 0; ix < 100; ix++) {
+            texts.add("text " + ix);
+        }
+
+        try {
+            TextFilters.applyAll(texts, text -> {
+                if (text.toString().equals("text 42")) {
+                    throw new IllegalArgumentException("bad text");
+                }
+                return text;
+            }, executor);
+            Assert.fail("exception was not thrown");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("bad text", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test with an executor that runs in the invoking thread.
+     */
+    @Test
+    public void directExecutorTest() {
+        List<String> results = TextFilters.applyAll(Arrays.asList("a", "b", "c"),
+                text -> text + "!", Runnable::run);
+        Assert.assertEquals(Arrays.asList("a!", "b!", "c!"), results);
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.shredzone.commons.text.CorpusGenerator;
+import org.shredzone.commons.text.CorpusGenerator.Format;
+import org.shredzone.commons.text.TextFilter;
+
+/**
+ * Allocation regression tests of the filters. Every filter is applied to a fixed corpus,
+ * and the number of allocated bytes must not exceed a budget.
+ * <p>
+ * The budget is given as a multiple of the bytes that are allocated by a single copy of
+ * the input text into a {@link StringBuilder}. This way the budgets do not depend on
+ * whether the JVM uses compact strings. A filter that copies the input once has a ratio
+ * of about 1.0.
+ * <p>
+ * The budgets were recorded with some headroom. If a change exceeds a budget, it is
+ * most likely creating garbage that was not created before. Only raise the budget if
+ * the additional allocation is intended.
+ * <p>
+ * The allocation is measured by {@link com.sun.management.ThreadMXBean}. If it is not
+ * available, the tests are skipped.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class AllocationBudgetTest {
+
+    /**
+     * Size of the corpus, in characters.
+     */
+    private static final int SIZE = 64 * 1024;
+
+    private static final int WARMUP = 200;
+    private static final int RUNS = 20;
+
+    private static final String PLAIN = new CorpusGenerator(42L).generate(SIZE);
+    private static final String CRLF = new CorpusGenerator(42L).crlfRatio(0.5).generate(SIZE);
+    private static final String HTML = new CorpusGenerator(42L).format(Format.HTML).generate(SIZE);
+    private static final String MARKDOWN = new CorpusGenerator(42L).format(Format.MARKDOWN).generate(SIZE);
+    private static final String TEXTILE = new CorpusGenerator(42L).format(Format.TEXTILE).generate(SIZE);
+
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeClass
+    public static void setup() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("ThreadMXBean does not measure allocations",
+                bean instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue("Allocation measurement is not supported",
+                threadBean.isThreadAllocatedMemorySupported());
+        if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    @Test
+    public void githubFlavoredMarkdownTest() {
+        assertBudget(new GithubFlavoredMarkdownFilter(), MARKDOWN, 55.0);
+    }
+
+    @Test
+    public void htmlEscapeTest() {
+        assertBudget(new HtmlEscapeFilter(), HTML, 1.5);
+    }
+
+    @Test
+    public void keepTest() {
+        assertBudget(new KeepFilter(), PLAIN, 0.1);
+    }
+
+    @Test
+    public void linkToUrlTest() {
+        assertBudget(new LinkToUrlFilter(), PLAIN, 2.5);
+    }
+
+    @Test
+    public void markdownTest() {
+        assertBudget(new MarkdownFilter(), MARKDOWN, 55.0);
+    }
+
+    @Test
+    public void nofollowLinksTest() {
+        assertBudget(new NofollowLinksFilter(), HTML, 3.5);
+    }
+
+    @Test
+    public void normalizeTest() {
+        assertBudget(new NormalizeFilter(), CRLF, 1.5);
+    }
+
+    @Test
+    public void paragraphTest() {
+        assertBudget(new ParagraphFilter(), PLAIN, 1.5);
+    }
+
+    @Test
+    public void simplifyHtmlTest() {
+        SimplifyHtmlFilter filter = new SimplifyHtmlFilter();
+        filter.addAcceptedTag("a", "href");
+        filter.addAcceptedTag("p");
+        filter.addAcceptedTag("b");
+        filter.addAcceptedTag("i");
+        assertBudget(filter, HTML, 1.5);
+    }
+
+    @Test
+    public void smilyTest() {
+        SmilyFilter filter = new SmilyFilter();
+        filter.setBaseUrl("http://localhost/smile");
+        filter.addSmily(":-)", "smile.png");
+        filter.addSmily(":-))", "laugh.png");
+        filter.addSmily(":-(", "sad.png");
+        filter.addSmily(":-P", "tongue.png");
+        assertBudget(filter, PLAIN, 3.5);
+    }
+
+    @Test
+    public void stripHtmlTest() {
+        assertBudget(new StripHtmlFilter(), HTML, 1.5);
+    }
+
+    @Test
+    public void textileTest() {
+        assertBudget(new TextileFilter(), TEXTILE, 150.0);
+    }
+
+    /**
+     * Asserts that the filter does not allocate more than the budget.
+     *
+     * @param filter
+     *            {@link TextFilter} to test
+     * @param text
+     *            Input text
+     * @param budget
+     *            Maximum number of allocated bytes, as a multiple of the bytes allocated
+     *            by a copy of the input text
+     */
+    private void assertBudget(TextFilter filter, String text, double budget) {
+        long copyBytes = measure(StringBuilder::new, text);
+        long bytes = measure(filter, text);
+        double ratio = (double) bytes / copyBytes;
+        Assert.assertTrue(filter.getClass().getSimpleName() + ": " + bytes + " bytes for "
+                + text.length() + " chars, ratio " + String.format("%.2f", ratio)
+                + " exceeds budget " + budget, ratio <= budget);
+    }
+
+    /**
+     * Measures the number of bytes that are allocated by applying the filter. The filter
+     * is warmed up first, so the JIT compiler can optimize it. The smallest allocation of
+     * a few runs is returned, to reduce the influence of the JIT compiler.
+     *
+     * @param filter
+     *            {@link TextFilter} to measure
+     * @param text
+     *            Input text
+     * @return Number of allocated bytes
+     */
+    private long measure(TextFilter filter, String text) {
+        long thread = Thread.currentThread().getId();
+        for (int ix = 0; ix < WARMUP; ix++) {
+            Assert.assertNotNull(filter.apply(text));
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int ix = 0; ix < RUNS; ix++) {
+            long before = threadBean.getThreadAllocatedBytes(thread);
+            CharSequence result = filter.apply(text);
+            long after = threadBean.getThreadAllocatedBytes(thread);
+            Assert.assertNotNull(result);
+            best = Math.min(best, after - before);
+        }
+        return best;
+    }
+
+}
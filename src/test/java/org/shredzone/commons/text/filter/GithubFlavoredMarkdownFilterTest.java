@@ -0,0 +1,84 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link GithubFlavoredMarkdownFilter}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class GithubFlavoredMarkdownFilterTest {
+
+    @Test
+    public void strikethroughTest() {
+        GithubFlavoredMarkdownFilter filter = new GithubFlavoredMarkdownFilter();
+
+        CharSequence out = filter.apply("A ~~deleted~~ text.");
+
+        Assert.assertEquals("<p>A <del>deleted</del> text.</p>\n", out.toString());
+    }
+
+    @Test
+    public void autolinkTest() {
+        GithubFlavoredMarkdownFilter filter = new GithubFlavoredMarkdownFilter();
+        String text = "See http://example.com";
+
+        Assert.assertEquals("<p>See http://example.com</p>\n",
+                filter.apply(text).toString());
+
+        filter.setAutolinkEnabled(true);
+        Assert.assertEquals("<p>See <a href=\"http://example.com\">http://example.com</a></p>\n",
+                filter.apply(text).toString());
+
+        filter.setAutolinkEnabled(false);
+        Assert.assertEquals("<p>See http://example.com</p>\n",
+                filter.apply(text).toString());
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        GithubFlavoredMarkdownFilter filter = new GithubFlavoredMarkdownFilter();
+        String expected = "<h1 id=\"title\">Title</h1>\n<p>A <strong>bold</strong> text.</p>\n";
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int ix = 0; ix < 100; ix++) {
+                results.add(executor.submit(
+                        () -> filter.apply("# Title\n\nA **bold** text.").toString()));
+            }
+            for (Future<String> result : results) {
+                Assert.assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
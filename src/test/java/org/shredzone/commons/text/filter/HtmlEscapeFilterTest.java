@@ -19,6 +19,8 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -42,4 +44,61 @@ public class HtmlEscapeFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void streamTest() throws IOException {
+        HtmlEscapeFilter filter = new HtmlEscapeFilter();
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("&Test <i>text</i> &\n with a \"quote\" << <& &<", out);
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("&amp;Test &lt;i>text&lt;/i> &amp;\n");
+        expect.append(" with a &quot;quote&quot; &lt;&lt; &lt;&amp; &amp;&lt;");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void unchangedTest() throws IOException {
+        HtmlEscapeFilter filter = new HtmlEscapeFilter();
+
+        String text = "Nothing to escape here > 'really'";
+        Assert.assertSame(text, filter.apply(text));
+
+        StringBuilder sb = new StringBuilder(text);
+        Assert.assertSame(sb, filter.apply(sb));
+
+        StringBuilder out = new StringBuilder();
+        filter.apply(text, out);
+        Assert.assertEquals(text, out.toString());
+
+        Assert.assertEquals("", filter.apply("").toString());
+    }
+
+    @Test
+    public void contextTest() throws IOException {
+        String text = "<a title='x'>\"Tom\" & 'Jerry'</a>";
+        HtmlEscapeFilter filter = new HtmlEscapeFilter();
+
+        filter.setContext(HtmlEscapeFilter.Context.TEXT);
+        Assert.assertEquals("&lt;a title='x'>&quot;Tom&quot; &amp; 'Jerry'&lt;/a>",
+                filter.apply(text).toString());
+
+        filter.setContext(HtmlEscapeFilter.Context.ATTRIBUTE);
+        Assert.assertEquals("&lt;a title=&#39;x&#39;>&quot;Tom&quot; &amp; &#39;Jerry&#39;&lt;/a>",
+                filter.apply(text).toString());
+
+        String xml = "&lt;a title=&apos;x&apos;&gt;&quot;Tom&quot; &amp; "
+                + "&apos;Jerry&apos;&lt;/a&gt;";
+        filter.setContext(HtmlEscapeFilter.Context.XML);
+        Assert.assertEquals(xml, filter.apply(text).toString());
+
+        StringBuilder out = new StringBuilder();
+        filter.apply(text, out);
+        Assert.assertEquals(xml, out.toString());
+
+        Assert.assertEquals("Gr\u00FC\u00DFe \u2764 &gt;",
+                filter.apply("Gr\u00FC\u00DFe \u2764 >").toString());
+    }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link HtmlPolicy}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class HtmlPolicyTest {
+
+    @Test
+    public void builderTest() {
+        HtmlPolicy policy = HtmlPolicy.builder()
+                .acceptTag("B")
+                .acceptTag("img", "SRC", "alt")
+                .build();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b", "img")), policy.getAcceptedTags());
+        Assert.assertTrue(policy.getAcceptedAttributes("b").isEmpty());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("src", "alt")),
+                policy.getAcceptedAttributes("IMG"));
+        Assert.assertTrue(policy.getAcceptedAttributes("script").isEmpty());
+
+        int img = policy.tags().lookup("<Img>", 1, 4);
+        Assert.assertEquals("img", policy.tags().name(img));
+        Assert.assertNotNull(policy.attributes(img));
+        Assert.assertNull(policy.attributes(policy.tags().lookup("b", 0, 1)));
+        Assert.assertEquals(-1, policy.tags().lookup("i", 0, 1));
+    }
+
+    @Test
+    public void internTest() {
+        HtmlPolicy policy1 = HtmlPolicy.builder()
+                .acceptTag("b")
+                .acceptTag("img", "src", "alt")
+                .build();
+
+        HtmlPolicy policy2 = HtmlPolicy.builder()
+                .acceptTag("IMG", "alt", "src")
+                .acceptTag("b")
+                .build();
+
+        HtmlPolicy policy3 = HtmlPolicy.builder()
+                .acceptTag("b")
+                .acceptTag("img", "src")
+                .build();
+
+        Assert.assertSame(policy1, policy2);
+        Assert.assertEquals(policy1, policy2);
+        Assert.assertNotEquals(policy1, policy3);
+        Assert.assertSame(HtmlPolicy.empty(), HtmlPolicy.builder().build());
+        Assert.assertSame(policy1, policy3.toBuilder().acceptTag("img", "src", "alt").build());
+    }
+
+    @Test
+    public void replaceTest() {
+        HtmlPolicy policy = HtmlPolicy.builder()
+                .acceptTag("a", "href", "title")
+                .acceptTag("a", "href")
+                .build();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("href")),
+                policy.getAcceptedAttributes("a"));
+    }
+
+}
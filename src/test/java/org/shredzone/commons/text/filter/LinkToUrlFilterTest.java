@@ -19,6 +19,8 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -171,4 +173,82 @@ public class LinkToUrlFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void streamTest() throws IOException {
+        LinkToUrlFilter filter = new LinkToUrlFilter();
+        filter.setTarget("_blank");
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("This is a http://www.link.example/to/somewhere.gif. "
+                + "Download here ftp://ftp.foobar.example/file.png", out);
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("This is a <a href=\"http://www.link.example/to/somewhere.gif\" target=\"_blank\" rel=\"noopener\">http://www.link.example/to/somewhere.gif</a>. ");
+        expect.append("Download here <a href=\"ftp://ftp.foobar.example/file.png\" target=\"_blank\" rel=\"noopener\">ftp://ftp.foobar.example/file.png</a>");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void multilineTest() {
+        LinkToUrlFilter filter = new LinkToUrlFilter();
+
+        CharSequence out = filter.apply("Visit http://www.link.example\nfor more details.");
+
+        Assert.assertEquals("Visit <a href=\"http://www.link.example\">http://www.link.example</a>"
+                + "\nfor more details.", out.toString());
+    }
+
+    @Test
+    public void punctuationTest() {
+        LinkToUrlFilter filter = new LinkToUrlFilter();
+
+        Assert.assertEquals("See <a href=\"http://a.example/x\">http://a.example/x</a>.",
+                filter.apply("See http://a.example/x.").toString());
+        Assert.assertEquals("Really <a href=\"http://a.example\">http://a.example</a>?!",
+                filter.apply("Really http://a.example?!").toString());
+        Assert.assertEquals("(see <a href=\"http://a.example/x\">http://a.example/x</a>).",
+                filter.apply("(see http://a.example/x).").toString());
+        Assert.assertEquals("<a href=\"http://a.example/Foo_(bar)\">http://a.example/Foo_(bar)</a>,",
+                filter.apply("http://a.example/Foo_(bar),").toString());
+        Assert.assertEquals("<a href=\"http://a.example/?a=1&amp;b=2\">http://a.example/?a=1&amp;b=2</a>",
+                filter.apply("http://a.example/?a=1&amp;b=2").toString());
+        Assert.assertEquals("&quot;<a href=\"http://a.example/\">http://a.example/</a>&quot;",
+                filter.apply("&quot;http://a.example/&quot;").toString());
+        Assert.assertEquals("<a href=\"http://a.example/\">http://a.example/</a><br>",
+                filter.apply("http://a.example/<br>").toString());
+    }
+
+    @Test
+    public void noLinkTest() {
+        LinkToUrlFilter filter = new LinkToUrlFilter();
+
+        String text = "There is no http:// link in mailto:foo@example.com, news://... "
+                + "or sftp//example.com.";
+        Assert.assertSame(text, filter.apply(text));
+    }
+
+    @Test
+    public void adversarialTest() {
+        LinkToUrlFilter filter = new LinkToUrlFilter();
+
+        StringBuilder sb = new StringBuilder();
+        for (int ix = 0; ix < 50000; ix++) {
+            sb.append("http:/");
+        }
+        String text = sb.toString();
+
+        Assert.assertSame(text, filter.apply(text));
+    }
+
+    @Test
+    public void mayModifyTest() {
+        LinkToUrlFilter filter = new LinkToUrlFilter();
+
+        Assert.assertTrue(filter.mayModify("see http://example.com"));
+        Assert.assertFalse(filter.mayModify("time: 12:00, path //foo"));
+        Assert.assertFalse(filter.mayModify("ends with http:/"));
+        Assert.assertFalse(filter.mayModify(""));
+    }
+
 }
@@ -102,4 +102,26 @@ public class MarkdownFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void reconfigureTest() {
+        MarkdownFilter filter = new MarkdownFilter();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("```\n");
+        sb.append("foo\n");
+        sb.append("```\n");
+        String text = sb.toString();
+
+        Assert.assertEquals("<pre><code>foo\n</code></pre>\n",
+                filter.apply(text).toString());
+
+        filter.setPreClass("prettyprint");
+        Assert.assertEquals("<pre class=\"prettyprint\"><code>foo\n</code></pre>\n",
+                filter.apply(text).toString());
+
+        filter.setPreClass(null);
+        Assert.assertEquals("<pre><code>foo\n</code></pre>\n",
+                filter.apply(text).toString());
+    }
+
 }
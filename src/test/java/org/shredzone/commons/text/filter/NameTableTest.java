@@ -0,0 +1,98 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link NameTable}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class NameTableTest {
+
+    @Test
+    public void lookupTest() {
+        NameTable table = new NameTable(Arrays.asList("b", "STRONG", "img", "Strong"));
+
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals("b", table.name(0));
+        Assert.assertEquals("strong", table.name(1));
+        Assert.assertEquals("img", table.name(2));
+
+        String text = "<B><sTrOnG><img><i><imgs>";
+        Assert.assertEquals(0, table.lookup(text, 1, 2));
+        Assert.assertEquals(1, table.lookup(text, 4, 10));
+        Assert.assertEquals(2, table.lookup(text, 12, 15));
+        Assert.assertEquals(-1, table.lookup(text, 17, 18));
+        Assert.assertEquals(-1, table.lookup(text, 20, 24));
+        Assert.assertEquals(-1, table.lookup(text, 0, 0));
+    }
+
+    @Test
+    public void emptyTest() {
+        NameTable table = new NameTable(Collections.emptyList());
+
+        Assert.assertEquals(0, table.size());
+        Assert.assertEquals(-1, table.lookup("b", 0, 1));
+    }
+
+    @Test
+    public void manyNamesTest() {
+        List<String> names = new ArrayList<>();
+        for (int ix = 0; ix < 200; ix++) {
+            names.add("name" + ix);
+        }
+
+        NameTable table = new NameTable(names);
+
+        Assert.assertEquals(names.size(), table.size());
+        for (int ix = 0; ix < names.size(); ix++) {
+            String name = "NAME" + ix;
+            Assert.assertEquals(ix, table.lookup(name, 0, name.length()));
+        }
+        Assert.assertEquals(-1, table.lookup("name200", 0, 7));
+    }
+
+    /**
+     * Names with the same {@link String#hashCode()} must not prevent the table from
+     * being built.
+     */
+    @Test(timeout = 5000)
+    public void sameHashCodeTest() {
+        Assert.assertEquals("an".hashCode(), "c0".hashCode());
+        Assert.assertEquals("ao".hashCode(), "c1".hashCode());
+
+        NameTable table = new NameTable(Arrays.asList("an", "c0", "ao", "c1"));
+
+        Assert.assertEquals(0, table.lookup("AN", 0, 2));
+        Assert.assertEquals(1, table.lookup("c0", 0, 2));
+        Assert.assertEquals(2, table.lookup("aO", 0, 2));
+        Assert.assertEquals(3, table.lookup("C1", 0, 2));
+        Assert.assertEquals(-1, table.lookup("bo", 0, 2));
+    }
+
+}
@@ -48,4 +48,37 @@ public class NofollowLinksFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void multilineTest() {
+        NofollowLinksFilter filter = new NofollowLinksFilter();
+
+        String in = "First <A\nHREF='http://www.link.example/'>link</A>.\n"
+                + "Local <a href=\"/to/somewhere\">link</a>.\n"
+                + "Image <a href=\"mailto:foo@example.com\"/>\n"
+                + "<abbr title=\"http://www.link.example/\">abbr</abbr>";
+
+        String expect = "First <A\nHREF='http://www.link.example/' rel=\"nofollow\">link</A>.\n"
+                + "Local <a href=\"/to/somewhere\">link</a>.\n"
+                + "Image <a href=\"mailto:foo@example.com\" rel=\"nofollow\"/>\n"
+                + "<abbr title=\"http://www.link.example/\">abbr</abbr>";
+
+        Assert.assertEquals(expect, filter.apply(in).toString());
+    }
+
+    @Test
+    public void unchangedTest() {
+        NofollowLinksFilter filter = new NofollowLinksFilter();
+
+        String in = "A <a href=\"/local\">local link</a>, and an <a href=\"http://unterminated";
+        Assert.assertSame(in, filter.apply(in));
+    }
+
+    @Test
+    public void mayModifyTest() {
+        NofollowLinksFilter filter = new NofollowLinksFilter();
+
+        Assert.assertTrue(filter.mayModify("<a href=\"http://example.com\">link</a>"));
+        Assert.assertFalse(filter.mayModify("http://example.com"));
+    }
+
 }
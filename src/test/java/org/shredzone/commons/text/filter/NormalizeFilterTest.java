@@ -19,6 +19,8 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -48,4 +50,37 @@ public class NormalizeFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void streamTest() throws IOException {
+        NormalizeFilter filter = new NormalizeFilter();
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("A CRLF\r\nline feed\r\n\r\ndoubled.A mac\rline feed\r\rdoubled.\r", out);
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("A CRLF\nline feed\n\ndoubled.");
+        expect.append("A mac\nline feed\n\ndoubled.\n");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void inPlaceTest() {
+        NormalizeFilter filter = new NormalizeFilter();
+
+        StringBuilder sb = new StringBuilder("\r\n\r\r\n\n\ra\r");
+        CharSequence out = filter.apply(sb);
+
+        Assert.assertSame(sb, out);
+        Assert.assertEquals("\n\n\n\n\na\n", out.toString());
+    }
+
+    @Test
+    public void noCrTest() {
+        NormalizeFilter filter = new NormalizeFilter();
+
+        String text = "A normal\nline feed.\n";
+        Assert.assertSame(text, filter.apply(text));
+    }
+
 }
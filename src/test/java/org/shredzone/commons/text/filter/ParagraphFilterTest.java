@@ -19,6 +19,8 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -65,4 +67,49 @@ public class ParagraphFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void trailingTest() throws IOException {
+        ParagraphFilter filter = new ParagraphFilter();
+        filter.setFoldLines(true);
+
+        Assert.assertEquals("<p>a<br />b</p>", filter.apply(new StringBuilder("a\nb\n")).toString());
+        Assert.assertEquals("<p>text</p>", filter.apply("text\n").toString());
+        Assert.assertEquals("<p>text</p>", filter.apply("text\n\n").toString());
+        Assert.assertEquals("<p>a</p><p>b</p>", filter.apply("a\n\nb\n\n\n").toString());
+        Assert.assertEquals("<p></p>", filter.apply("\n\n").toString());
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("text\n\n", out);
+        Assert.assertEquals("<p>text</p>", out.toString());
+
+        filter.setFoldLines(false);
+        Assert.assertEquals("<p>a\nb</p>", filter.apply("a\nb\n").toString());
+    }
+
+    @Test
+    public void streamTest() throws IOException {
+        ParagraphFilter filter = new ParagraphFilter();
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("A normal double\n\nline feed.\nAnother\nline feed\n\n\ntripled.", out);
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("<p>A normal double</p><p>line feed.<br />");
+        expect.append("Another<br />line feed</p><p>tripled.</p>");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void untouchedTest() {
+        ParagraphFilter filter = new ParagraphFilter();
+
+        StringBuilder sb = new StringBuilder("\n\na\n");
+        CharSequence out = filter.apply(sb);
+
+        Assert.assertEquals("<p></p><p>a</p>", out.toString());
+        Assert.assertEquals("\n\na\n", sb.toString());
+        Assert.assertFalse(filter.isInPlace());
+    }
+
 }
@@ -0,0 +1,259 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.shredzone.commons.text.TextFilter;
+
+/**
+ * Worst-case latency tests of all filters. Every filter is fed with crafted input that
+ * is known to trigger catastrophic backtracking or repeated rescans. The processing time
+ * must grow linearly with the input size.
+ * <p>
+ * The {@link TextileFilter} is not tested here, as the Textile parser is not part of
+ * this project. The Markdown filters skip input with many unclosed '&lt;', as the
+ * CommonMark parser scans the rest of the paragraph for every one of them.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class PathologicalInputTest {
+
+    /**
+     * Size of the smaller input, in characters.
+     */
+    private static final int SIZE = 20_000;
+
+    /**
+     * The larger input is this many times the size of the smaller input.
+     */
+    private static final int GROWTH = 32;
+
+    /**
+     * Maximum accepted ratio between the processing times of the larger and the smaller
+     * input. A linear filter has a ratio of about {@link #GROWTH}, a quadratic filter a
+     * ratio of about {@link #GROWTH} squared. There is plenty of room for timer
+     * inaccuracy and GC noise.
+     */
+    private static final long MAX_RATIO = GROWTH * 8L;
+
+    /**
+     * Processing times of the larger input below this limit are always accepted, as
+     * they are too short to be measured reliably.
+     */
+    private static final long MIN_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
+    /**
+     * Absolute limit of the processing time of the larger input.
+     */
+    private static final long MAX_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final int RUNS = 3;
+
+    private static final Map<String, String> PATTERNS = new LinkedHashMap<>();
+    static {
+        PATTERNS.put("open anchors", "<a href=");
+        PATTERNS.put("open anchors with scheme", "<a href=\"http://");
+        PATTERNS.put("anchors without href", "<a title=x ");
+        PATTERNS.put("open brackets", "<");
+        PATTERNS.put("unterminated tags", "<p class=\"x\" ");
+        PATTERNS.put("closing tags", "</");
+        PATTERNS.put("unbalanced quotes", "<b a=\"'");
+        PATTERNS.put("no whitespace", "x");
+        PATTERNS.put("schemes", "http://");
+        PATTERNS.put("colons", "http:");
+        PATTERNS.put("hosts", "www.");
+        PATTERNS.put("smily prefixes", ":-");
+        PATTERNS.put("entities", "&amp");
+        PATTERNS.put("carriage returns", "\r");
+        PATTERNS.put("line feeds", "\n");
+        PATTERNS.put("empty lines", "\r\n\r\n");
+        PATTERNS.put("emphasis", "*_");
+        PATTERNS.put("link brackets", "[");
+        PATTERNS.put("backticks", "`");
+    }
+
+    /**
+     * Catastrophic backtracking may take hours. Abort the test instead.
+     */
+    @Rule
+    public final Timeout timeout = Timeout.seconds(60);
+
+    /**
+     * Patterns that are known to be quadratic in the CommonMark parser.
+     */
+    private static final String[] UNCLOSED_TAGS = {"open anchors",
+            "open anchors with scheme", "anchors without href", "open brackets",
+            "closing tags", "unbalanced quotes"};
+
+    @Test
+    public void githubFlavoredMarkdownTest() {
+        assertLinear(new GithubFlavoredMarkdownFilter(), UNCLOSED_TAGS);
+    }
+
+    @Test
+    public void htmlEscapeTest() {
+        assertLinear(new HtmlEscapeFilter());
+    }
+
+    @Test
+    public void keepTest() {
+        assertLinear(new KeepFilter());
+    }
+
+    @Test
+    public void linkToUrlTest() {
+        assertLinear(new LinkToUrlFilter());
+    }
+
+    @Test
+    public void markdownTest() {
+        assertLinear(new MarkdownFilter(), UNCLOSED_TAGS);
+    }
+
+    @Test
+    public void nofollowLinksTest() {
+        assertLinear(new NofollowLinksFilter());
+    }
+
+    @Test
+    public void normalizeTest() {
+        assertLinear(new NormalizeFilter());
+    }
+
+    @Test
+    public void paragraphTest() {
+        assertLinear(new ParagraphFilter());
+    }
+
+    @Test
+    public void simplifyHtmlTest() {
+        SimplifyHtmlFilter filter = new SimplifyHtmlFilter();
+        filter.addAcceptedTag("a", "href", "title");
+        filter.addAcceptedTag("b");
+        filter.addAcceptedTag("p", "class");
+        assertLinear(filter);
+    }
+
+    @Test
+    public void smilyTest() {
+        SmilyFilter filter = new SmilyFilter();
+        filter.setBaseUrl("http://localhost/smile");
+        filter.addSmily(":-)", "smile.png");
+        filter.addSmily(":-))", "laugh.png");
+        filter.addSmily(":-(", "sad.png");
+        filter.addSmily(":-P", "tongue.png");
+        assertLinear(filter);
+    }
+
+    @Test
+    public void stripHtmlTest() {
+        assertLinear(new StripHtmlFilter());
+    }
+
+    /**
+     * Asserts that the processing time of the filter grows linearly with the input size,
+     * for all pathological input patterns.
+     *
+     * @param filter
+     *            {@link TextFilter} to test
+     * @param skipped
+     *            Names of patterns that are known to be nonlinear, and are skipped
+     */
+    private void assertLinear(TextFilter filter, String... skipped) {
+        List<String> failures = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : PATTERNS.entrySet()) {
+            if (Arrays.asList(skipped).contains(entry.getKey())) {
+                continue;
+            }
+
+            String small = repeat(entry.getValue(), SIZE);
+            String large = repeat(entry.getValue(), SIZE * GROWTH);
+
+            measure(filter, small); // warm up
+
+            long smallNanos = measure(filter, small);
+            long largeNanos = measure(filter, large);
+
+            String message = filter.getClass().getSimpleName() + ", " + entry.getKey()
+                    + ": " + TimeUnit.NANOSECONDS.toMicros(smallNanos) + " µs for "
+                    + small.length() + " chars, "
+                    + TimeUnit.NANOSECONDS.toMicros(largeNanos) + " µs for "
+                    + large.length() + " chars";
+
+            if (largeNanos > MAX_NANOS
+                    || (largeNanos > MIN_NANOS && largeNanos > Math.max(smallNanos, 1L) * MAX_RATIO)) {
+                failures.add(message);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            Assert.fail(String.join("\n", failures));
+        }
+    }
+
+    /**
+     * Measures the processing time of the filter. The fastest of a few runs is returned,
+     * to reduce the influence of GC and JIT.
+     *
+     * @param filter
+     *            {@link TextFilter} to measure
+     * @param text
+     *            Input text
+     * @return Processing time, in nanoseconds
+     */
+    private long measure(TextFilter filter, String text) {
+        long best = Long.MAX_VALUE;
+        for (int ix = 0; ix < RUNS; ix++) {
+            long start = System.nanoTime();
+            CharSequence result = filter.apply(new StringBuilder(text));
+            long time = System.nanoTime() - start;
+            Assert.assertNotNull(result);
+            best = Math.min(best, time);
+            if (time > MAX_NANOS) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Repeats the pattern until the string has the given length.
+     */
+    private static String repeat(String pattern, int length) {
+        StringBuilder sb = new StringBuilder(length + pattern.length());
+        while (sb.length() < length) {
+            sb.append(pattern);
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+}
@@ -19,6 +19,8 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -77,4 +79,77 @@ public class SimplifyHtmlFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void caseTest() {
+        CharSequence out = filter.apply("<B>bold</B><IMG SRC=\"a.png\" Alt=\"A\"><Br/>");
+        Assert.assertEquals("<b>bold</b><img src=\"a.png\" alt=\"A\"><br />", out.toString());
+    }
+
+    @Test
+    public void specialCharTest() {
+        CharSequence out = filter.apply("Costs $1 \\ <img src=\"$0\\1.png\"> $2");
+        Assert.assertEquals("Costs $1 \\ <img src=\"$0\\1.png\"> $2", out.toString());
+    }
+
+    @Test
+    public void junkAttributeTest() {
+        CharSequence out = filter.apply("<img data-x=\"y\" -- src=\"a.png\" alt=>");
+        Assert.assertEquals("<img src=\"a.png\" alt=\"\">", out.toString());
+    }
+
+    @Test
+    public void multilineTagTest() {
+        CharSequence out = filter.apply("<img\nsrc=\"a.png\"\nalt=\"b\"\n/>\n</b\n>");
+        Assert.assertEquals("<img src=\"a.png\" alt=\"b\" />\n</b>", out.toString());
+    }
+
+    @Test
+    public void noTagTest() {
+        String text = "a > b & c";
+        Assert.assertSame(text, filter.apply(text));
+        Assert.assertEquals("a <> b", filter.apply("a <> b<x>").toString());
+    }
+
+    @Test
+    public void streamTest() throws IOException {
+        StringBuilder out = new StringBuilder();
+        filter.apply("<p>This is <b class=\"x\">bold</b>!</p>", out);
+        Assert.assertEquals("This is <b>bold</b>!", out.toString());
+    }
+
+    @Test
+    public void policyTest() {
+        HtmlPolicy policy = HtmlPolicy.builder()
+                .acceptTag("i")
+                .acceptTag("a", "href")
+                .build();
+
+        SimplifyHtmlFilter filter1 = new SimplifyHtmlFilter(policy);
+        SimplifyHtmlFilter filter2 = new SimplifyHtmlFilter(policy);
+        Assert.assertSame(policy, filter1.getPolicy());
+
+        String text = "<b><i>Hi</i></b> <a href=\"x.html\" onclick=\"y()\">there</a>";
+        String expect = "<i>Hi</i> <a href=\"x.html\">there</a>";
+        Assert.assertEquals(expect, filter1.apply(text).toString());
+        Assert.assertEquals(expect, filter2.apply(text).toString());
+
+        // Changing one filter must not affect the shared policy
+        filter2.addAcceptedTag("b");
+        Assert.assertEquals("<b><i>Hi</i></b>", filter2.apply("<b><i>Hi</i></b>").toString());
+        Assert.assertEquals("<i>Hi</i>", filter1.apply("<b><i>Hi</i></b>").toString());
+        Assert.assertSame(policy, filter1.getPolicy());
+        Assert.assertNotEquals(policy, filter2.getPolicy());
+
+        // Further changes are based on the modified policy
+        filter2.addAcceptedTag("u");
+        Assert.assertEquals("<b><u>Hi</u></b>", filter2.apply("<b><u>Hi</u></b>").toString());
+        Assert.assertEquals("Hi", filter1.apply("<b><u>Hi</u></b>").toString());
+    }
+
+    @Test
+    public void mayModifyTest() {
+        Assert.assertTrue(filter.mayModify("<b>bold</b>"));
+        Assert.assertFalse(filter.mayModify("just text & more > less"));
+    }
+
 }
@@ -19,6 +19,12 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -76,4 +82,112 @@ public class SmilyFilterTest {
         Assert.assertSame(sb, out);
     }
 
+    @Test
+    public void streamTest() throws IOException {
+        StringBuilder out = new StringBuilder();
+        filter.apply("Hi! :-P\nNo smile in here.", out);
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("Hi! <img src=\"foo/smileys/tongue.png\" alt=\":-P\" />\n");
+        expect.append("No smile in here.");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void overlapTest() {
+        filter.addSmily("<3", "heart.png");
+
+        CharSequence out = filter.apply(":-:-)):-(:-<3");
+
+        StringBuilder expect = new StringBuilder();
+        expect.append(":-<img src=\"foo/smileys/veryhappy.png\" alt=\":-))\" />");
+        expect.append("<img src=\"foo/smileys/sad.png\" alt=\":-(\" />");
+        expect.append(":-<img src=\"foo/smileys/heart.png\" alt=\"&lt;3\" />");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void emptyTest() {
+        SmilyFilter emptyFilter = new SmilyFilter();
+
+        String text = "No smilies :-) defined.";
+        Assert.assertSame(text, emptyFilter.apply(text));
+    }
+
+    @Test
+    public void bulkMapTest() {
+        Map<String, String> smilies = new HashMap<>();
+        smilies.put(";-)", "wink.png");
+        smilies.put("8-)", "cool.png");
+
+        filter.addSmilies(smilies);
+
+        CharSequence out = filter.apply("Hey ;-) Cool 8-) :-)");
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("Hey <img src=\"foo/smileys/wink.png\" alt=\";-)\" />");
+        expect.append(" Cool <img src=\"foo/smileys/cool.png\" alt=\"8-)\" />");
+        expect.append(" <img src=\"foo/smileys/happy.png\" alt=\":-)\" />");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void bulkPropertiesTest() throws IOException {
+        Properties smilies = new Properties();
+        smilies.load(new StringReader("\\:-D=grin.png\n;-)=wink.png\n"));
+
+        SmilyFilter propFilter = new SmilyFilter();
+        propFilter.addSmilies(smilies);
+
+        CharSequence out = propFilter.apply(":-D;-)");
+
+        StringBuilder expect = new StringBuilder();
+        expect.append("<img src=\"grin.png\" alt=\":-D\" />");
+        expect.append("<img src=\"wink.png\" alt=\";-)\" />");
+
+        Assert.assertEquals(expect.toString(), out.toString());
+    }
+
+    @Test
+    public void freezeTest() {
+        Assert.assertSame(filter, filter.freeze());
+
+        CharSequence out = filter.apply("Hi! :-P");
+        Assert.assertEquals("Hi! <img src=\"foo/smileys/tongue.png\" alt=\":-P\" />",
+                out.toString());
+
+        try {
+            filter.addSmily(";-)", "wink.png");
+            Assert.fail("smily was added to frozen filter");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+
+        try {
+            filter.setBaseUrl("bar");
+            Assert.fail("base url was changed on frozen filter");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void recompileTest() {
+        Assert.assertEquals("Hi! ;-)", filter.apply("Hi! ;-)").toString());
+
+        filter.addSmily(";-)", "wink.png");
+        Assert.assertEquals("Hi! <img src=\"foo/smileys/wink.png\" alt=\";-)\" />",
+                filter.apply("Hi! ;-)").toString());
+    }
+
+    @Test
+    public void mayModifyTest() {
+        Assert.assertTrue(filter.mayModify("Hi! :-)"));
+        Assert.assertFalse(filter.mayModify("Hi there!"));
+        Assert.assertFalse(new SmilyFilter().mayModify("Hi! :-)"));
+    }
+
 }
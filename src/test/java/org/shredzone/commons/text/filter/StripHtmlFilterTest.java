@@ -19,6 +19,8 @@
  */
 package org.shredzone.commons.text.filter;
 
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -78,4 +80,55 @@ public class StripHtmlFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void blockTest() {
+        StripHtmlFilter filter = new StripHtmlFilter();
+
+        CharSequence out = filter.apply("a<br>b<br>c<p>");
+
+        Assert.assertEquals("a b c", out.toString());
+    }
+
+    @Test
+    public void streamTest() throws IOException {
+        StripHtmlFilter filter = new StripHtmlFilter();
+
+        StringBuilder out = new StringBuilder();
+        filter.apply("<h1>wow!</h1><hr>This is <b>a bad content</b>.<br />\n", out);
+
+        Assert.assertEquals("wow! This is a bad content. ", out.toString());
+    }
+
+    @Test
+    public void quoteTest() {
+        StripHtmlFilter filter = new StripHtmlFilter();
+
+        // '>' in quoted values
+        Assert.assertEquals("a b c", filter.apply("a<p title=\">\">b<hr class=\"<>\"/>c").toString());
+
+        // Unclosed quote is taken as plain character
+        Assert.assertEquals("link", filter.apply("<a href=\"foo>link</a>").toString());
+
+        // Backtracking to the last working quote
+        Assert.assertEquals("bri", filter.apply("<p b=\"><b>\"=\">bri").toString());
+    }
+
+    @Test
+    public void inlineTest() {
+        StripHtmlFilter filter = new StripHtmlFilter();
+
+        CharSequence out = filter.apply("<STRONG>x</Strong><Em>y</eM><sub>z</sub><div>q");
+        Assert.assertEquals("xyz q", out.toString());
+    }
+
+    @Test
+    public void mayModifyTest() {
+        StripHtmlFilter filter = new StripHtmlFilter();
+
+        Assert.assertTrue(filter.mayModify("a <b>bold</b> text"));
+        Assert.assertTrue(filter.mayModify("trailing whitespace "));
+        Assert.assertFalse(filter.mayModify("just text"));
+        Assert.assertFalse(filter.mayModify(""));
+    }
+
 }
@@ -82,4 +82,22 @@ public class TextileFilterTest {
         Assert.assertEquals(expect.toString(), out.toString());
     }
 
+    @Test
+    public void poolTest() {
+        TextileFilter pooled = new TextileFilter();
+        pooled.setPoolSize(1);
+
+        TextileFilter unpooled = new TextileFilter();
+        unpooled.setPoolSize(0);
+
+        for (int ix = 0; ix < 3; ix++) {
+            Assert.assertEquals("<p>A <strong>bold</strong> text.</p>",
+                    pooled.apply("A *bold* text.").toString());
+            Assert.assertEquals("<p>An <em>emphasized</em> text.</p>",
+                    pooled.apply("An _emphasized_ text.").toString());
+            Assert.assertEquals("<p>A <strong>bold</strong> text.</p>",
+                    unpooled.apply("A *bold* text.").toString());
+        }
+    }
+
 }
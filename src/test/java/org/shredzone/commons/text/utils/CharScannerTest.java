@@ -0,0 +1,101 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+import java.nio.CharBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CharScanner}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class CharScannerTest {
+
+    /**
+     * Test that all trigger characters are found, in order.
+     */
+    @Test
+    public void nextTest() {
+        CharScanner scanner = new CharScanner('<', '&', '"');
+        String text = "a<b&&c\"d<❤ end";
+
+        assertPositions(scanner.scan(text), 1, 3, 4, 6, 8);
+        assertPositions(scanner.scan(new StringBuilder(text)), 1, 3, 4, 6, 8);
+        assertPositions(scanner.scan(CharBuffer.wrap(text)), 1, 3, 4, 6, 8);
+    }
+
+    /**
+     * Test texts without trigger characters.
+     */
+    @Test
+    public void noneTest() {
+        CharScanner scanner = new CharScanner('\r');
+
+        Assert.assertEquals(-1, scanner.scan("").next(0));
+        Assert.assertEquals(-1, scanner.scan("no carriage return\n").next(0));
+        Assert.assertEquals(-1, scanner.scan(new StringBuilder("\n\n")).next(0));
+        Assert.assertEquals(-1, scanner.scan("\r").next(1));
+    }
+
+    /**
+     * Test that positions can be skipped, and that earlier positions can be found
+     * again.
+     */
+    @Test
+    public void skipTest() {
+        CharScanner scanner = new CharScanner('x', 'y');
+        assertSkip(scanner.scan("x-y-x-y"));
+        assertSkip(scanner.scan(new StringBuilder("x-y-x-y")));
+        assertSkip(scanner.scan(CharBuffer.wrap("x-y-x-y")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyTest() {
+        new CharScanner();
+    }
+
+    /**
+     * Asserts that the scan of "x-y-x-y" finds the trigger characters after skipping.
+     */
+    private static void assertSkip(CharScanner.Scan scan) {
+        Assert.assertEquals(4, scan.next(3));
+        Assert.assertEquals(6, scan.next(5));
+        Assert.assertEquals(-1, scan.next(7));
+        Assert.assertEquals(0, scan.next(0));
+        Assert.assertEquals(2, scan.next(1));
+    }
+
+    /**
+     * Asserts that the scan finds the trigger characters at the given positions.
+     */
+    private static void assertPositions(CharScanner.Scan scan, int... expected) {
+        int pos = 0;
+        for (int exp : expected) {
+            pos = scan.next(pos);
+            Assert.assertEquals(exp, pos);
+            pos++;
+        }
+        Assert.assertEquals(-1, scan.next(pos));
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Shredzone Commons
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://commons.shredzone.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.shredzone.commons.text.utils;
+
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link OutputLengthEstimator}.
+ *
+ * @author Richard "Shred" Körber
+ */
+public class OutputLengthEstimatorTest {
+
+    /**
+     * Test the initial estimation.
+     */
+    @Test
+    public void initialTest() {
+        OutputLengthEstimator estimator = new OutputLengthEstimator(1.5, 7);
+
+        Assert.assertEquals(7, estimator.estimate(0));
+        Assert.assertEquals(1507, estimator.estimate(1000));
+        Assert.assertEquals(Integer.MAX_VALUE - 8, estimator.estimate(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Test that the ratio follows the texts, but a single text may at most double it.
+     */
+    @Test
+    public void adaptTest() {
+        OutputLengthEstimator estimator = new OutputLengthEstimator(1.0, 0);
+
+        estimator.record(1000, 16000);
+        Assert.assertEquals(2000, estimator.estimate(1000));
+
+        for (int ix = 0; ix < 1000; ix++) {
+            estimator.record(1000, 3000);
+        }
+        Assert.assertEquals(3000, estimator.estimate(1000));
+
+        for (int ix = 0; ix < 1000; ix++) {
+            estimator.record(1000, 1000);
+        }
+        int lowered = estimator.estimate(1000);
+        Assert.assertTrue(lowered >= 1000 && lowered <= 1002);
+    }
+
+    /**
+     * Test that a short text has little influence on the estimation of long texts.
+     */
+    @Test
+    public void weightTest() {
+        OutputLengthEstimator estimator = new OutputLengthEstimator(1.0, 0);
+
+        estimator.record(1_000_000, 1_000_000);
+        estimator.record(64, 1024);
+        int estimate = estimator.estimate(1_000_000);
+        Assert.assertTrue(estimate >= 1_000_000 && estimate < 1_020_000);
+
+        estimator.record(1_000_000, 1_000_000);
+        estimate = estimator.estimate(1_000_000);
+        Assert.assertTrue(estimate >= 1_000_000 && estimate < 1_001_000);
+    }
+
+    /**
+     * Test that short texts and unknown lengths are ignored.
+     */
+    @Test
+    public void ignoreTest() {
+        OutputLengthEstimator estimator = new OutputLengthEstimator(1.0, 7);
+
+        estimator.record(10, 1000);
+        estimator.record(1000, -1);
+        estimator.record(1000, new StringWriter(), OutputLengthEstimator.mark(new StringWriter()));
+        Assert.assertEquals(1007, estimator.estimate(1000));
+
+        StringBuilder out = new StringBuilder("prefix");
+        int mark = OutputLengthEstimator.mark(out);
+        Assert.assertEquals(6, mark);
+        for (int ix = 0; ix < 1000; ix++) {
+            out.append("xx");
+        }
+        estimator.record(1000, out, mark);
+        int estimate = estimator.estimate(1000);
+        Assert.assertTrue(estimate >= 2000 && estimate <= 2001);
+    }
+
+}